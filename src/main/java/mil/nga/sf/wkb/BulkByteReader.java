@@ -0,0 +1,31 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+/**
+ * Byte Reader able to read runs of double values in a single bulk copy, such
+ * as the coordinates of a line string. Runs in the native byte order are
+ * copied without per value byte order handling.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public interface BulkByteReader {
+
+	/**
+	 * Read double values in the byte order
+	 * 
+	 * @param values
+	 *            values to read into
+	 * @param offset
+	 *            array index of the first value
+	 * @param length
+	 *            number of values
+	 * @throws IOException
+	 *             upon not enough remaining bytes, before any values are
+	 *             read
+	 */
+	public void readDoubles(double[] values, int offset, int length)
+			throws IOException;
+
+}
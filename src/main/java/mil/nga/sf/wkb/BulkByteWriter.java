@@ -0,0 +1,30 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+/**
+ * Byte Writer able to write runs of double values in a single bulk copy,
+ * such as the coordinates of a line string. Runs in the native byte order
+ * are copied without per value byte order handling.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public interface BulkByteWriter {
+
+	/**
+	 * Write double values in the byte order
+	 * 
+	 * @param values
+	 *            values to write
+	 * @param offset
+	 *            array index of the first value
+	 * @param length
+	 *            number of values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void writeDoubles(double[] values, int offset, int length)
+			throws IOException;
+
+}
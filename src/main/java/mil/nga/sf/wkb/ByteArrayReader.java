@@ -0,0 +1,312 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import mil.nga.sf.util.ByteReader;
+
+/**
+ * Resettable Byte Reader over a byte array range. Values are decoded directly
+ * from the array without intermediate buffers, and the reader can be reset to
+ * a new array range for reuse across many geometries.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class ByteArrayReader extends ByteReader
+		implements SeekableByteReader, BulkByteReader {
+
+	/**
+	 * Empty bytes
+	 */
+	private static final byte[] EMPTY_BYTES = new byte[0];
+
+	/**
+	 * Bytes to read
+	 */
+	private byte[] bytes;
+
+	/**
+	 * Array index of the first byte
+	 */
+	private int offset;
+
+	/**
+	 * Array index after the last byte
+	 */
+	private int limit;
+
+	/**
+	 * Array index of the next byte to read
+	 */
+	private int index;
+
+	/**
+	 * Big endian byte order flag
+	 */
+	private boolean bigEndian;
+
+	/**
+	 * Bulk copy flag, false to read runs of double values one at a time
+	 */
+	private boolean bulkCopy = true;
+
+	/**
+	 * Double views of the array for bulk copies
+	 */
+	private final DoubleViews views = new DoubleViews();
+
+	/**
+	 * Constructor
+	 */
+	public ByteArrayReader() {
+		this(EMPTY_BYTES);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            bytes
+	 */
+	public ByteArrayReader(byte[] bytes) {
+		this(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            array index of the first byte
+	 * @param length
+	 *            number of bytes
+	 */
+	public ByteArrayReader(byte[] bytes, int offset, int length) {
+		super(EMPTY_BYTES);
+		setByteOrder(ByteOrder.BIG_ENDIAN);
+		reset(bytes, offset, length);
+	}
+
+	/**
+	 * Reset the reader to read all bytes of a new array
+	 * 
+	 * @param bytes
+	 *            bytes
+	 */
+	public void reset(byte[] bytes) {
+		reset(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Reset the reader to read a new array range
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            array index of the first byte
+	 * @param length
+	 *            number of bytes
+	 */
+	public void reset(byte[] bytes, int offset, int length) {
+		if (offset < 0 || length < 0 || length > bytes.length - offset) {
+			throw new IndexOutOfBoundsException("Offset: " + offset
+					+ ", Length: " + length + ", Bytes: " + bytes.length);
+		}
+		views.reset(bytes);
+		this.bytes = bytes;
+		this.offset = offset;
+		this.limit = offset + length;
+		this.index = offset;
+	}
+
+	/**
+	 * Reset the reader to no bytes, releasing the array reference
+	 */
+	public void clear() {
+		reset(EMPTY_BYTES, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNextByte() {
+		return index - offset;
+	}
+
+	/**
+	 * Get the number of bytes remaining to be read
+	 * 
+	 * @return remaining bytes
+	 */
+	public int remaining() {
+		return limit - index;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteOrder(ByteOrder byteOrder) {
+		super.setByteOrder(byteOrder);
+		bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
+	}
+
+	/**
+	 * Check if runs of double values are bulk copied through double views of
+	 * the array, true by default
+	 * 
+	 * @return true if bulk copied
+	 */
+	public boolean isBulkCopy() {
+		return bulkCopy;
+	}
+
+	/**
+	 * Set if runs of double values are bulk copied through double views of
+	 * the array. When false, runs are decoded one value at a time, such as
+	 * to compare against the bulk copies.
+	 * 
+	 * @param bulkCopy
+	 *            true to bulk copy
+	 */
+	public void setBulkCopy(boolean bulkCopy) {
+		this.bulkCopy = bulkCopy;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void seek(int nextByte) throws IOException {
+		if (nextByte < 0 || nextByte > (limit - offset)) {
+			throw new IOException(
+					"Next byte outside of the readable bytes. Total Bytes: "
+							+ (limit - offset) + ", Next Byte: " + nextByte);
+		}
+		index = offset + nextByte;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void skip(long num) throws IOException {
+		verifyRemainingBytes(num);
+		index += (int) num;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String readString(int num) throws IOException {
+		verifyRemainingBytes(num);
+		String value = new String(bytes, index, num, StandardCharsets.UTF_8);
+		index += num;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte readByte() throws IOException {
+		verifyRemainingBytes(1);
+		return bytes[index++];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readInt() throws IOException {
+		verifyRemainingBytes(4);
+		int value = getInt(index);
+		index += 4;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long readUnsignedInt() throws IOException {
+		int intValue = readInt();
+		long value = intValue & 0xffffffffL;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double readDouble() throws IOException {
+		verifyRemainingBytes(8);
+		long first = getInt(index) & 0xffffffffL;
+		long second = getInt(index + 4) & 0xffffffffL;
+		index += 8;
+		long value = bigEndian ? (first << 32) | second
+				: (second << 32) | first;
+		return Double.longBitsToDouble(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void readDoubles(double[] values, int offset, int length)
+			throws IOException {
+		verifyRemainingBytes(8L * length);
+		if (!bulkCopy || length < DoubleViews.MIN_VIEW_VALUES) {
+			for (int i = 0; i < length; i++) {
+				values[offset + i] = readDouble();
+			}
+		} else {
+			views.get(index, getByteOrder()).get(values, offset, length);
+			index += 8 * length;
+		}
+	}
+
+	/**
+	 * Get the int value at the array index in the byte order
+	 * 
+	 * @param i
+	 *            array index
+	 * @return int value
+	 */
+	private int getInt(int i) {
+		int value;
+		if (bigEndian) {
+			value = (bytes[i] << 24) | ((bytes[i + 1] & 0xff) << 16)
+					| ((bytes[i + 2] & 0xff) << 8) | (bytes[i + 3] & 0xff);
+		} else {
+			value = (bytes[i + 3] << 24) | ((bytes[i + 2] & 0xff) << 16)
+					| ((bytes[i + 1] & 0xff) << 8) | (bytes[i] & 0xff);
+		}
+		return value;
+	}
+
+	/**
+	 * Verify with the remaining bytes that there are enough remaining to read
+	 * the provided amount
+	 * 
+	 * @param bytesToRead
+	 *            number of bytes to read
+	 * @throws IOException
+	 *             upon not enough remaining bytes
+	 */
+	private void verifyRemainingBytes(long bytesToRead) throws IOException {
+		if (bytesToRead > remaining()) {
+			throw new IOException(
+					"No more remaining bytes to read. Total Bytes: "
+							+ (limit - offset) + ", Bytes already read: "
+							+ getNextByte() + ", Attempted to read: "
+							+ bytesToRead);
+		}
+	}
+
+}
@@ -0,0 +1,326 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import mil.nga.sf.util.ByteWriter;
+
+/**
+ * Resettable Byte Writer into a fixed size byte array range. Values are
+ * encoded directly into the array without intermediate buffers, growth, or a
+ * final copy when the range is the complete array and is completely written.
+ * The writer can be reset to a new array range for reuse across many
+ * geometries. The inherited output stream is not written to.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class ByteArrayWriter extends ByteWriter implements BulkByteWriter {
+
+	/**
+	 * Empty bytes
+	 */
+	private static final byte[] EMPTY_BYTES = new byte[0];
+
+	/**
+	 * Bytes to write into
+	 */
+	private byte[] bytes;
+
+	/**
+	 * Array index of the first byte
+	 */
+	private int offset;
+
+	/**
+	 * Array index after the last byte
+	 */
+	private int limit;
+
+	/**
+	 * Array index of the next byte to write
+	 */
+	private int index;
+
+	/**
+	 * Big endian byte order flag
+	 */
+	private boolean bigEndian;
+
+	/**
+	 * Bulk copy flag, false to write runs of double values one at a time
+	 */
+	private boolean bulkCopy = true;
+
+	/**
+	 * Double views of the array for bulk copies
+	 */
+	private final DoubleViews views = new DoubleViews();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 */
+	public ByteArrayWriter(byte[] bytes) {
+		this(bytes, DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public ByteArrayWriter(byte[] bytes, ByteOrder byteOrder) {
+		this(bytes, 0, bytes.length, byteOrder);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 * @param offset
+	 *            array index of the first byte
+	 * @param length
+	 *            maximum number of bytes
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public ByteArrayWriter(byte[] bytes, int offset, int length,
+			ByteOrder byteOrder) {
+		super(byteOrder);
+		setByteOrder(byteOrder);
+		reset(bytes, offset, length);
+	}
+
+	/**
+	 * Reset the writer to write from the start of the current array range
+	 */
+	public void reset() {
+		index = offset;
+	}
+
+	/**
+	 * Reset the writer to write into all bytes of a new array
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 */
+	public void reset(byte[] bytes) {
+		reset(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Reset the writer to write into a new array range
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 * @param offset
+	 *            array index of the first byte
+	 * @param length
+	 *            maximum number of bytes
+	 */
+	public void reset(byte[] bytes, int offset, int length) {
+		if (offset < 0 || length < 0 || length > bytes.length - offset) {
+			throw new IndexOutOfBoundsException("Offset: " + offset
+					+ ", Length: " + length + ", Bytes: " + bytes.length);
+		}
+		views.reset(bytes);
+		this.bytes = bytes;
+		this.offset = offset;
+		this.limit = offset + length;
+		this.index = offset;
+	}
+
+	/**
+	 * Reset the writer to no bytes, releasing the array reference
+	 */
+	public void clear() {
+		reset(EMPTY_BYTES, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteOrder(ByteOrder byteOrder) {
+		super.setByteOrder(byteOrder);
+		bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
+	}
+
+	/**
+	 * Check if runs of double values are bulk copied through double views of
+	 * the array, true by default
+	 * 
+	 * @return true if bulk copied
+	 */
+	public boolean isBulkCopy() {
+		return bulkCopy;
+	}
+
+	/**
+	 * Set if runs of double values are bulk copied through double views of
+	 * the array. When false, runs are encoded one value at a time, such as
+	 * to compare against the bulk copies.
+	 * 
+	 * @param bulkCopy
+	 *            true to bulk copy
+	 */
+	public void setBulkCopy(boolean bulkCopy) {
+		this.bulkCopy = bulkCopy;
+	}
+
+	/**
+	 * Get the written bytes, the array itself when the complete array has
+	 * been written
+	 * 
+	 * @return written bytes
+	 */
+	@Override
+	public byte[] getBytes() {
+		byte[] written = bytes;
+		if (offset != 0 || index != bytes.length) {
+			written = Arrays.copyOfRange(bytes, offset, index);
+		}
+		return written;
+	}
+
+	/**
+	 * Get the array being written into
+	 * 
+	 * @return bytes
+	 */
+	public byte[] getArray() {
+		return bytes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return index - offset;
+	}
+
+	/**
+	 * Get the number of bytes remaining to be written
+	 * 
+	 * @return remaining bytes
+	 */
+	public int remaining() {
+		return limit - index;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeString(String value) throws IOException {
+		byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+		verifyRemainingBytes(valueBytes.length);
+		System.arraycopy(valueBytes, 0, bytes, index, valueBytes.length);
+		index += valueBytes.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeByte(byte value) throws IOException {
+		verifyRemainingBytes(1);
+		bytes[index++] = value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeInt(int value) throws IOException {
+		verifyRemainingBytes(4);
+		putInt(index, value);
+		index += 4;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeDouble(double value) throws IOException {
+		verifyRemainingBytes(8);
+		long bits = Double.doubleToRawLongBits(value);
+		if (bigEndian) {
+			putInt(index, (int) (bits >>> 32));
+			putInt(index + 4, (int) bits);
+		} else {
+			putInt(index, (int) bits);
+			putInt(index + 4, (int) (bits >>> 32));
+		}
+		index += 8;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeDoubles(double[] values, int offset, int length)
+			throws IOException {
+		verifyRemainingBytes(8L * length);
+		if (!bulkCopy || length < DoubleViews.MIN_VIEW_VALUES) {
+			for (int i = 0; i < length; i++) {
+				writeDouble(values[offset + i]);
+			}
+		} else {
+			views.get(index, getByteOrder()).put(values, offset, length);
+			index += 8 * length;
+		}
+	}
+
+	/**
+	 * Put the int value at the array index in the byte order
+	 * 
+	 * @param i
+	 *            array index
+	 * @param value
+	 *            int value
+	 */
+	private void putInt(int i, int value) {
+		if (bigEndian) {
+			bytes[i] = (byte) (value >>> 24);
+			bytes[i + 1] = (byte) (value >>> 16);
+			bytes[i + 2] = (byte) (value >>> 8);
+			bytes[i + 3] = (byte) value;
+		} else {
+			bytes[i] = (byte) value;
+			bytes[i + 1] = (byte) (value >>> 8);
+			bytes[i + 2] = (byte) (value >>> 16);
+			bytes[i + 3] = (byte) (value >>> 24);
+		}
+	}
+
+	/**
+	 * Verify with the remaining bytes that there is enough room to write the
+	 * provided amount
+	 * 
+	 * @param bytesToWrite
+	 *            number of bytes to write
+	 * @throws IOException
+	 *             upon not enough remaining bytes
+	 */
+	private void verifyRemainingBytes(long bytesToWrite) throws IOException {
+		if (bytesToWrite > remaining()) {
+			throw new IOException(
+					"No more remaining bytes to write. Total Bytes: "
+							+ (limit - offset) + ", Bytes already written: "
+							+ size() + ", Attempted to write: "
+							+ bytesToWrite);
+		}
+	}
+
+}
@@ -0,0 +1,291 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import mil.nga.sf.util.ByteReader;
+
+/**
+ * Byte Reader backed by a {@link ByteBuffer}. Reads heap, direct, and memory
+ * mapped buffers in place from the buffer position to the buffer limit
+ * without copying the bytes to an array. The position, limit, and byte order
+ * of the provided buffer are not modified.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class ByteBufferReader extends ByteReader
+		implements SeekableByteReader, BulkByteReader {
+
+	/**
+	 * Empty bytes for the byte array backed parent reader
+	 */
+	private static final byte[] EMPTY_BYTES = new byte[0];
+
+	/**
+	 * Byte buffer view to read from
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Buffer index of the first byte
+	 */
+	private int offset;
+
+	/**
+	 * Buffer index of the next byte to read
+	 */
+	private int index;
+
+	/**
+	 * Double views of the buffer for bulk copies
+	 */
+	private final DoubleViews views = new DoubleViews();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 */
+	public ByteBufferReader(ByteBuffer buffer) {
+		this(buffer, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public ByteBufferReader(ByteBuffer buffer, ByteOrder byteOrder) {
+		this(buffer, buffer.position(), buffer.remaining(), byteOrder);
+	}
+
+	/**
+	 * Constructor to read a range of the buffer, independent of the buffer
+	 * position and limit
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param offset
+	 *            buffer index of the first byte
+	 * @param length
+	 *            number of bytes
+	 */
+	public ByteBufferReader(ByteBuffer buffer, int offset, int length) {
+		this(buffer, offset, length, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Constructor to read a range of the buffer, independent of the buffer
+	 * position and limit
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param offset
+	 *            buffer index of the first byte
+	 * @param length
+	 *            number of bytes
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public ByteBufferReader(ByteBuffer buffer, int offset, int length,
+			ByteOrder byteOrder) {
+		super(EMPTY_BYTES, byteOrder);
+		this.buffer = buffer.duplicate();
+		this.buffer.order(byteOrder);
+		this.buffer.limit(offset + length);
+		this.buffer.position(offset);
+		this.offset = offset;
+		this.index = offset;
+		views.reset(this.buffer);
+	}
+
+	/**
+	 * Reset the reader to read a new range of the same buffer, independent of
+	 * the buffer position and limit
+	 * 
+	 * @param offset
+	 *            buffer index of the first byte
+	 * @param length
+	 *            number of bytes
+	 */
+	public void reset(int offset, int length) {
+		if (offset < 0 || length < 0
+				|| length > buffer.capacity() - offset) {
+			throw new IndexOutOfBoundsException("Offset: " + offset
+					+ ", Length: " + length + ", Capacity: "
+					+ buffer.capacity());
+		}
+		buffer.limit(offset + length);
+		buffer.position(offset);
+		this.offset = offset;
+		this.index = offset;
+	}
+
+	/**
+	 * Get the byte buffer view being read, positioned and limited to the
+	 * readable bytes
+	 * 
+	 * @return byte buffer
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNextByte() {
+		return index - offset;
+	}
+
+	/**
+	 * Get the number of bytes remaining to be read
+	 * 
+	 * @return remaining bytes
+	 */
+	public int remaining() {
+		return buffer.limit() - index;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ByteOrder getByteOrder() {
+		return buffer.order();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteOrder(ByteOrder byteOrder) {
+		buffer.order(byteOrder);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void seek(int nextByte) throws IOException {
+		if (nextByte < 0 || nextByte > (buffer.limit() - offset)) {
+			throw new IOException(
+					"Next byte outside of the readable bytes. Total Bytes: "
+							+ (buffer.limit() - offset) + ", Next Byte: "
+							+ nextByte);
+		}
+		index = offset + nextByte;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void skip(long num) throws IOException {
+		verifyRemainingBytes(num);
+		index += (int) num;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String readString(int num) throws IOException {
+		verifyRemainingBytes(num);
+		byte[] bytes = new byte[num];
+		for (int i = 0; i < num; i++) {
+			bytes[i] = buffer.get(index + i);
+		}
+		index += num;
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte readByte() throws IOException {
+		verifyRemainingBytes(1);
+		byte value = buffer.get(index);
+		index++;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readInt() throws IOException {
+		verifyRemainingBytes(4);
+		int value = buffer.getInt(index);
+		index += 4;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long readUnsignedInt() throws IOException {
+		int intValue = readInt();
+		long value = intValue & 0xffffffffL;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double readDouble() throws IOException {
+		verifyRemainingBytes(8);
+		double value = buffer.getDouble(index);
+		index += 8;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void readDoubles(double[] values, int offset, int length)
+			throws IOException {
+		verifyRemainingBytes(8L * length);
+		if (length < DoubleViews.MIN_VIEW_VALUES) {
+			for (int i = 0; i < length; i++) {
+				values[offset + i] = buffer.getDouble(index);
+				index += 8;
+			}
+		} else {
+			views.get(index, buffer.order()).get(values, offset, length);
+			index += 8 * length;
+		}
+	}
+
+	/**
+	 * Verify with the remaining bytes that there are enough remaining to read
+	 * the provided amount
+	 * 
+	 * @param bytesToRead
+	 *            number of bytes to read
+	 * @throws IOException
+	 *             upon not enough remaining bytes
+	 */
+	private void verifyRemainingBytes(long bytesToRead) throws IOException {
+		if (bytesToRead > remaining()) {
+			throw new IOException(
+					"No more remaining bytes to read. Total Bytes: "
+							+ (buffer.limit() - offset)
+							+ ", Bytes already read: " + getNextByte()
+							+ ", Attempted to read: " + bytesToRead);
+		}
+	}
+
+}
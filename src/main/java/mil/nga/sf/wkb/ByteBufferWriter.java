@@ -0,0 +1,181 @@
+package mil.nga.sf.wkb;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import mil.nga.sf.util.ByteWriter;
+
+/**
+ * Byte Writer into a {@link ByteBuffer}. Writes into heap, direct, and memory
+ * mapped buffers in place from the buffer position to the buffer limit. The
+ * position, limit, and byte order of the provided buffer are not modified.
+ * Writing past the buffer limit throws a {@link BufferOverflowException}. The
+ * inherited output stream is not written to.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class ByteBufferWriter extends ByteWriter implements BulkByteWriter {
+
+	/**
+	 * Byte buffer view to write into
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Buffer index of the first byte
+	 */
+	private final int offset;
+
+	/**
+	 * Double views of the buffer for bulk copies
+	 */
+	private final DoubleViews views = new DoubleViews();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 */
+	public ByteBufferWriter(ByteBuffer buffer) {
+		this(buffer, DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public ByteBufferWriter(ByteBuffer buffer, ByteOrder byteOrder) {
+		super(byteOrder);
+		this.buffer = buffer.duplicate();
+		this.buffer.order(byteOrder);
+		this.offset = buffer.position();
+		views.reset(this.buffer);
+	}
+
+	/**
+	 * Get the byte buffer view being written, positioned after the written
+	 * bytes
+	 * 
+	 * @return byte buffer
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Reset the writer to write from the starting buffer position
+	 */
+	public void reset() {
+		buffer.position(offset);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ByteOrder getByteOrder() {
+		return buffer.order();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteOrder(ByteOrder byteOrder) {
+		super.setByteOrder(byteOrder);
+		if (buffer != null) {
+			buffer.order(byteOrder);
+		}
+	}
+
+	/**
+	 * Get a copy of the written bytes
+	 * 
+	 * @return written bytes
+	 */
+	@Override
+	public byte[] getBytes() {
+		byte[] bytes = new byte[size()];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(offset + i);
+		}
+		return bytes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return buffer.position() - offset;
+	}
+
+	/**
+	 * Get the number of bytes remaining to be written
+	 * 
+	 * @return remaining bytes
+	 */
+	public int remaining() {
+		return buffer.remaining();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeString(String value) {
+		buffer.put(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeByte(byte value) {
+		buffer.put(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeInt(int value) {
+		buffer.putInt(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeDouble(double value) {
+		buffer.putDouble(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeDoubles(double[] values, int offset, int length) {
+		if (8L * length > buffer.remaining()) {
+			throw new BufferOverflowException();
+		}
+		if (length < DoubleViews.MIN_VIEW_VALUES) {
+			for (int i = 0; i < length; i++) {
+				buffer.putDouble(values[offset + i]);
+			}
+		} else {
+			views.get(buffer.position(), buffer.order()).put(values, offset,
+					length);
+			buffer.position(buffer.position() + 8 * length);
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package mil.nga.sf.wkb;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Reused double views of a byte array or byte buffer for bulk copies of
+ * double value runs. A double view covers the bytes at a single byte
+ * alignment, so a view is created on first use for each alignment and kept
+ * until reset to different bytes. Native and swapped byte order views are
+ * kept separately so byte order changes reuse the views of each order.
+ * Runs shorter than {@link #MIN_VIEW_VALUES} are copied one value at a time
+ * by the byte readers and writers, so readers and writers reset to new bytes
+ * for every geometry do not create views for short coordinate runs.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+class DoubleViews {
+
+	/**
+	 * Minimum number of double values in a run copied through a view
+	 */
+	static final int MIN_VIEW_VALUES = 64;
+
+	/**
+	 * Byte order opposite of the native byte order
+	 */
+	private static final ByteOrder SWAPPED_ORDER = ByteOrder
+			.nativeOrder() == ByteOrder.BIG_ENDIAN ? ByteOrder.LITTLE_ENDIAN
+					: ByteOrder.BIG_ENDIAN;
+
+	/**
+	 * Native byte order views by byte alignment
+	 */
+	private final DoubleBuffer[] nativeViews = new DoubleBuffer[8];
+
+	/**
+	 * Swapped byte order views by byte alignment
+	 */
+	private final DoubleBuffer[] swappedViews = new DoubleBuffer[8];
+
+	/**
+	 * Byte array, wrapped in the buffer on first use
+	 */
+	private byte[] array;
+
+	/**
+	 * Byte buffer
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Reset to views of a byte array, keeping the views when the same array
+	 * 
+	 * @param array
+	 *            byte array
+	 */
+	void reset(byte[] array) {
+		if (array != this.array) {
+			this.array = array;
+			this.buffer = null;
+			clearViews();
+		}
+	}
+
+	/**
+	 * Reset to views of a byte buffer, keeping the views when the same buffer
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 */
+	void reset(ByteBuffer buffer) {
+		if (array != null || buffer != this.buffer) {
+			this.array = null;
+			this.buffer = buffer;
+			clearViews();
+		}
+	}
+
+	/**
+	 * Get the double view in the byte order, positioned at the byte index.
+	 * The view has at least as many remaining values as fit in the bytes
+	 * from the index to the end of the array or buffer capacity.
+	 * 
+	 * @param index
+	 *            array or buffer index of the first value byte
+	 * @param byteOrder
+	 *            byte order
+	 * @return double view
+	 */
+	DoubleBuffer get(int index, ByteOrder byteOrder) {
+		DoubleBuffer view;
+		if (byteOrder == ByteOrder.nativeOrder()) {
+			// Native order runs are copied without swapping bytes
+			view = getView(nativeViews, index, byteOrder);
+		} else {
+			// Swapped order runs reverse the bytes of each value
+			view = getView(swappedViews, index, SWAPPED_ORDER);
+		}
+		return view;
+	}
+
+	/**
+	 * Get the view for the alignment of the byte index, creating it on first
+	 * use
+	 * 
+	 * @param views
+	 *            views by byte alignment
+	 * @param index
+	 *            array or buffer index of the first value byte
+	 * @param byteOrder
+	 *            view byte order
+	 * @return double view
+	 */
+	private DoubleBuffer getView(DoubleBuffer[] views, int index,
+			ByteOrder byteOrder) {
+		int alignment = index & 7;
+		DoubleBuffer view = views[alignment];
+		if (view == null) {
+			if (buffer == null) {
+				buffer = ByteBuffer.wrap(array);
+			}
+			ByteBuffer aligned = buffer.duplicate();
+			aligned.clear();
+			aligned.position(alignment);
+			view = aligned.slice().order(byteOrder).asDoubleBuffer();
+			views[alignment] = view;
+		}
+		view.position((index - alignment) >> 3);
+		return view;
+	}
+
+	/**
+	 * Clear the created views
+	 */
+	private void clearViews() {
+		for (int i = 0; i < nativeViews.length; i++) {
+			nativeViews[i] = null;
+			swappedViews[i] = null;
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+package mil.nga.sf.wkb;
+
+import mil.nga.sf.GeometryEnvelope;
+
+/**
+ * Primitive envelope bounds expanded by scanned coordinates without per
+ * coordinate allocations
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+class EnvelopeBounds {
+
+	/**
+	 * Min x
+	 */
+	private double minX = Double.MAX_VALUE;
+
+	/**
+	 * Max x
+	 */
+	private double maxX = -Double.MAX_VALUE;
+
+	/**
+	 * Min y
+	 */
+	private double minY = Double.MAX_VALUE;
+
+	/**
+	 * Max y
+	 */
+	private double maxY = -Double.MAX_VALUE;
+
+	/**
+	 * Has z flag
+	 */
+	private boolean hasZ = false;
+
+	/**
+	 * Min z
+	 */
+	private double minZ = Double.MAX_VALUE;
+
+	/**
+	 * Max z
+	 */
+	private double maxZ = -Double.MAX_VALUE;
+
+	/**
+	 * Has m flag
+	 */
+	private boolean hasM = false;
+
+	/**
+	 * Min m
+	 */
+	private double minM = Double.MAX_VALUE;
+
+	/**
+	 * Max m
+	 */
+	private double maxM = -Double.MAX_VALUE;
+
+	/**
+	 * Reset to empty bounds for reuse
+	 */
+	void reset() {
+		minX = Double.MAX_VALUE;
+		maxX = -Double.MAX_VALUE;
+		minY = Double.MAX_VALUE;
+		maxY = -Double.MAX_VALUE;
+		hasZ = false;
+		minZ = Double.MAX_VALUE;
+		maxZ = -Double.MAX_VALUE;
+		hasM = false;
+		minM = Double.MAX_VALUE;
+		maxM = -Double.MAX_VALUE;
+	}
+
+	/**
+	 * Expand the x and y bounds
+	 * 
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 */
+	void expandXY(double x, double y) {
+		if (x < minX) {
+			minX = x;
+		}
+		if (x > maxX) {
+			maxX = x;
+		}
+		if (y < minY) {
+			minY = y;
+		}
+		if (y > maxY) {
+			maxY = y;
+		}
+	}
+
+	/**
+	 * Expand the z bounds
+	 * 
+	 * @param z
+	 *            z value
+	 */
+	void expandZ(double z) {
+		hasZ = true;
+		if (z < minZ) {
+			minZ = z;
+		}
+		if (z > maxZ) {
+			maxZ = z;
+		}
+	}
+
+	/**
+	 * Expand the m bounds
+	 * 
+	 * @param m
+	 *            m value
+	 */
+	void expandM(double m) {
+		hasM = true;
+		if (m < minM) {
+			minM = m;
+		}
+		if (m > maxM) {
+			maxM = m;
+		}
+	}
+
+	/**
+	 * Check if no x and y values have expanded the bounds
+	 * 
+	 * @return true if empty
+	 */
+	boolean isEmpty() {
+		return minX > maxX || minY > maxY;
+	}
+
+	/**
+	 * Check if the x and y bounds intersect the envelope
+	 * 
+	 * @param envelope
+	 *            geometry envelope
+	 * @return true if intersects, false if disjoint or empty
+	 */
+	boolean intersects(GeometryEnvelope envelope) {
+		return !isEmpty() && minX <= envelope.getMaxX()
+				&& maxX >= envelope.getMinX() && minY <= envelope.getMaxY()
+				&& maxY >= envelope.getMinY();
+	}
+
+	/**
+	 * Create a geometry envelope from the bounds
+	 * 
+	 * @return geometry envelope, null if empty
+	 */
+	GeometryEnvelope toEnvelope() {
+		GeometryEnvelope envelope = null;
+		if (!isEmpty()) {
+			envelope = new GeometryEnvelope(hasZ, hasM);
+			envelope.setMinX(minX);
+			envelope.setMaxX(maxX);
+			envelope.setMinY(minY);
+			envelope.setMaxY(maxY);
+			if (hasZ && minZ <= maxZ) {
+				envelope.setMinZ(minZ);
+				envelope.setMaxZ(maxZ);
+			}
+			if (hasM && minM <= maxM) {
+				envelope.setMinM(minM);
+				envelope.setMaxM(maxM);
+			}
+		}
+		return envelope;
+	}
+
+}
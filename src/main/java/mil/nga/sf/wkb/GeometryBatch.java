@@ -0,0 +1,156 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import mil.nga.sf.Geometry;
+
+/**
+ * Batch of Well Known Binary geometries encoded back to back in a single
+ * contiguous byte array with an offsets index, the binary column layout. The
+ * offsets contain one entry per geometry followed by the end of the data, so
+ * geometry i is the bytes from offset i to offset i + 1. Null geometries are
+ * zero length entries.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometryBatch {
+
+	/**
+	 * Contiguous geometry bytes
+	 */
+	private final byte[] data;
+
+	/**
+	 * Geometry byte offsets followed by the end of the data
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param data
+	 *            contiguous geometry bytes
+	 * @param offsets
+	 *            geometry byte offsets followed by the end of the data
+	 */
+	public GeometryBatch(byte[] data, int[] offsets) {
+		this.data = data;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * Get the contiguous geometry bytes
+	 * 
+	 * @return data
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * Get the geometry byte offsets, followed by the end of the data
+	 * 
+	 * @return offsets
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * Get the number of geometries
+	 * 
+	 * @return geometry count
+	 */
+	public int size() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Get the number of data bytes in use
+	 * 
+	 * @return data length
+	 */
+	public int getDataLength() {
+		return offsets[offsets.length - 1];
+	}
+
+	/**
+	 * Get the data offset of a geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return data offset
+	 */
+	public int getOffset(int index) {
+		validateIndex(index);
+		return offsets[index];
+	}
+
+	/**
+	 * Get the number of bytes of a geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return geometry length, 0 for a null geometry
+	 */
+	public int getLength(int index) {
+		validateIndex(index);
+		return offsets[index + 1] - offsets[index];
+	}
+
+	/**
+	 * Get a copy of the bytes of a geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return geometry bytes, null for a null geometry
+	 */
+	public byte[] getBytes(int index) {
+		byte[] bytes = null;
+		if (getLength(index) > 0) {
+			bytes = Arrays.copyOfRange(data, offsets[index],
+					offsets[index + 1]);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Read a geometry in place from the data
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return geometry, null for a null geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read(int index) throws IOException {
+		Geometry geometry = null;
+		int length = getLength(index);
+		if (length > 0) {
+			GeometryReader reader = new GeometryReader(data, offsets[index],
+					length);
+			try {
+				geometry = reader.read();
+			} finally {
+				reader.close();
+			}
+		}
+		return geometry;
+	}
+
+	/**
+	 * Validate the geometry index
+	 * 
+	 * @param index
+	 *            geometry index
+	 */
+	private void validateIndex(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException(
+					"Geometry index: " + index + ", Geometries: " + size());
+		}
+	}
+
+}
@@ -0,0 +1,246 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Encoder of many geometries back to back into a single growable byte buffer
+ * with an offsets index. Each added geometry is sized exactly before writing,
+ * so the buffer grows at most once per geometry and is written in place by a
+ * single reused byte writer. The encoder can be reset to reuse the grown
+ * buffers for the next batch.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometryBatchEncoder {
+
+	/**
+	 * Byte writer, reset to the range of each added geometry
+	 */
+	private final ByteArrayWriter writer;
+
+	/**
+	 * Geometry writer over the byte writer
+	 */
+	private final GeometryWriter geometryWriter;
+
+	/**
+	 * Contiguous geometry bytes
+	 */
+	private byte[] data;
+
+	/**
+	 * Geometry byte offsets followed by the end of the data
+	 */
+	private int[] offsets = new int[16];
+
+	/**
+	 * Number of geometries
+	 */
+	private int count = 0;
+
+	/**
+	 * Constructor
+	 */
+	public GeometryBatchEncoder() {
+		this(ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public GeometryBatchEncoder(ByteOrder byteOrder) {
+		this(byteOrder, 1024);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param byteOrder
+	 *            byte order
+	 * @param initialCapacity
+	 *            initial data capacity in bytes
+	 */
+	public GeometryBatchEncoder(ByteOrder byteOrder, int initialCapacity) {
+		data = new byte[initialCapacity];
+		writer = new ByteArrayWriter(data, byteOrder);
+		geometryWriter = new GeometryWriter(writer);
+	}
+
+	/**
+	 * Encode the geometries into a single exactly sized batch
+	 * 
+	 * @param geometries
+	 *            geometries, null geometries are encoded as zero length
+	 * @return geometry batch
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public static GeometryBatch encode(List<? extends Geometry> geometries)
+			throws IOException {
+		return encode(geometries, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Encode the geometries into a single exactly sized batch
+	 * 
+	 * @param geometries
+	 *            geometries, null geometries are encoded as zero length
+	 * @param byteOrder
+	 *            byte order
+	 * @return geometry batch
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public static GeometryBatch encode(List<? extends Geometry> geometries,
+			ByteOrder byteOrder) throws IOException {
+		int[] offsets = offsets(geometries);
+		byte[] data = new byte[offsets[geometries.size()]];
+		ByteArrayWriter writer = new ByteArrayWriter(data, byteOrder);
+		GeometryWriter geometryWriter = new GeometryWriter(writer);
+		for (Geometry geometry : geometries) {
+			if (geometry != null) {
+				geometryWriter.write(geometry);
+			}
+		}
+		return new GeometryBatch(data, offsets);
+	}
+
+	/**
+	 * Get the geometry byte offsets followed by the end of the data
+	 * 
+	 * @param geometries
+	 *            geometries, null geometries are zero length
+	 * @return offsets
+	 */
+	static int[] offsets(List<? extends Geometry> geometries) {
+		int[] offsets = new int[geometries.size() + 1];
+		long offset = 0;
+		for (int i = 0; i < geometries.size(); i++) {
+			offsets[i] = (int) offset;
+			Geometry geometry = geometries.get(i);
+			if (geometry != null) {
+				offset += GeometryWriter.sizeOf(geometry);
+				validateLength(offset);
+			}
+		}
+		offsets[geometries.size()] = (int) offset;
+		return offsets;
+	}
+
+	/**
+	 * Get the byte order
+	 * 
+	 * @return byte order
+	 */
+	public ByteOrder getByteOrder() {
+		return writer.getByteOrder();
+	}
+
+	/**
+	 * Get the number of added geometries
+	 * 
+	 * @return geometry count
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Get the number of encoded bytes
+	 * 
+	 * @return data length
+	 */
+	public int getDataLength() {
+		return offsets[count];
+	}
+
+	/**
+	 * Add a geometry to the end of the batch
+	 * 
+	 * @param geometry
+	 *            geometry, null geometries are encoded as zero length
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void add(Geometry geometry) throws IOException {
+		int offset = offsets[count];
+		int size = 0;
+		if (geometry != null) {
+			size = GeometryWriter.sizeOf(geometry);
+			long end = (long) offset + size;
+			validateLength(end);
+			if (end > data.length) {
+				data = Arrays.copyOf(data,
+						(int) Math.min(Integer.MAX_VALUE - 8,
+								Math.max(end, 2L * data.length)));
+			}
+			writer.reset(data, offset, size);
+			geometryWriter.write(geometry);
+		}
+		if (count + 2 > offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length * 2);
+		}
+		offsets[++count] = offset + size;
+	}
+
+	/**
+	 * Add the geometries to the end of the batch
+	 * 
+	 * @param geometries
+	 *            geometries, null geometries are encoded as zero length
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void addAll(List<? extends Geometry> geometries)
+			throws IOException {
+		for (Geometry geometry : geometries) {
+			add(geometry);
+		}
+	}
+
+	/**
+	 * Build the batch of the added geometries, copying the encoded bytes and
+	 * offsets. The encoder can continue to add geometries or be reset.
+	 * 
+	 * @return geometry batch
+	 */
+	public GeometryBatch build() {
+		return new GeometryBatch(Arrays.copyOf(data, offsets[count]),
+				Arrays.copyOf(offsets, count + 1));
+	}
+
+	/**
+	 * Reset the encoder to an empty batch, keeping the grown buffers for
+	 * reuse
+	 */
+	public void reset() {
+		count = 0;
+		writer.clear();
+	}
+
+	/**
+	 * Validate that the encoded bytes fit in a single byte array
+	 * 
+	 * @param length
+	 *            data length
+	 */
+	private static void validateLength(long length) {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new SFException(
+					"Geometry batch larger than a single byte array: "
+							+ length);
+		}
+	}
+
+}
@@ -0,0 +1,638 @@
+package mil.nga.sf.wkb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.Curve;
+import mil.nga.sf.CurvePolygon;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiLineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.PolyhedralSurface;
+import mil.nga.sf.TIN;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * Batch reader of many Well Known Binary geometries in parallel. Batches are
+ * recursively split across a fork join pool down to a sequential threshold,
+ * with each sequential range read by a single reused reader. Geometries are
+ * returned in input order. Batches no larger than the sequential threshold
+ * are read on the calling thread. The members of a single large collection
+ * geometry can also be read in parallel, split by encoded member bytes down to
+ * a sequential byte threshold.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometryBatchReader implements Closeable {
+
+	/**
+	 * Default maximum number of geometries read sequentially by a single task
+	 */
+	public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 512;
+
+	/**
+	 * Default maximum number of collection member bytes read sequentially by
+	 * a single task
+	 */
+	public static final int DEFAULT_SEQUENTIAL_BYTES = 1024 * 1024;
+
+	/**
+	 * Fork join pool
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * True when the pool was created by and is closed with this reader
+	 */
+	private final boolean ownedPool;
+
+	/**
+	 * Maximum number of geometries read sequentially by a single task
+	 */
+	private int sequentialThreshold = DEFAULT_SEQUENTIAL_THRESHOLD;
+
+	/**
+	 * Maximum number of collection member bytes read sequentially by a single
+	 * task
+	 */
+	private int sequentialBytes = DEFAULT_SEQUENTIAL_BYTES;
+
+	/**
+	 * Constructor, using the common fork join pool
+	 */
+	public GeometryBatchReader() {
+		this(ForkJoinPool.commonPool(), false);
+	}
+
+	/**
+	 * Constructor, creating a fork join pool closed with this reader
+	 * 
+	 * @param parallelism
+	 *            parallelism level
+	 */
+	public GeometryBatchReader(int parallelism) {
+		this(new ForkJoinPool(parallelism), true);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param pool
+	 *            fork join pool, not closed with this reader
+	 */
+	public GeometryBatchReader(ForkJoinPool pool) {
+		this(pool, false);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param pool
+	 *            fork join pool
+	 * @param ownedPool
+	 *            true if the pool is closed with this reader
+	 */
+	private GeometryBatchReader(ForkJoinPool pool, boolean ownedPool) {
+		this.pool = pool;
+		this.ownedPool = ownedPool;
+	}
+
+	/**
+	 * Get the parallelism level
+	 * 
+	 * @return parallelism
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Get the maximum number of geometries read sequentially by a single task
+	 * 
+	 * @return sequential threshold
+	 */
+	public int getSequentialThreshold() {
+		return sequentialThreshold;
+	}
+
+	/**
+	 * Set the maximum number of geometries read sequentially by a single task
+	 * 
+	 * @param sequentialThreshold
+	 *            sequential threshold, at least 1
+	 */
+	public void setSequentialThreshold(int sequentialThreshold) {
+		if (sequentialThreshold < 1) {
+			throw new SFException("Sequential threshold must be at least 1: "
+					+ sequentialThreshold);
+		}
+		this.sequentialThreshold = sequentialThreshold;
+	}
+
+	/**
+	 * Get the maximum number of collection member bytes read sequentially by
+	 * a single task when reading a single geometry
+	 * 
+	 * @return sequential bytes
+	 */
+	public int getSequentialBytes() {
+		return sequentialBytes;
+	}
+
+	/**
+	 * Set the maximum number of collection member bytes read sequentially by
+	 * a single task when reading a single geometry
+	 * 
+	 * @param sequentialBytes
+	 *            sequential bytes, at least 1
+	 */
+	public void setSequentialBytes(int sequentialBytes) {
+		if (sequentialBytes < 1) {
+			throw new SFException(
+					"Sequential bytes must be at least 1: " + sequentialBytes);
+		}
+		this.sequentialBytes = sequentialBytes;
+	}
+
+	/**
+	 * Read the geometries
+	 * 
+	 * @param geometryBytes
+	 *            list of geometry bytes
+	 * @return geometries in input order
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public List<Geometry> read(List<byte[]> geometryBytes)
+			throws IOException {
+		return read(geometryBytes, null);
+	}
+
+	/**
+	 * Read the geometries
+	 * 
+	 * @param geometryBytes
+	 *            list of geometry bytes
+	 * @param filter
+	 *            geometry filter, must be thread safe
+	 * @return geometries in input order, null for filtered geometries
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public List<Geometry> read(List<byte[]> geometryBytes,
+			GeometryFilter filter) throws IOException {
+		ReadTask task = new ReadTask(geometryBytes, null, null, filter, null,
+				null, 0, geometryBytes.size(),
+				new Geometry[geometryBytes.size()]);
+		invoke(task);
+		return Arrays.asList(task.geometries);
+	}
+
+	/**
+	 * Read the geometries from a single data array
+	 * 
+	 * @param data
+	 *            concatenated geometry bytes
+	 * @param offsets
+	 *            data offset of each geometry, followed by the data offset
+	 *            after the last geometry
+	 * @return geometries in input order
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public List<Geometry> read(byte[] data, int[] offsets)
+			throws IOException {
+		return read(data, offsets, null);
+	}
+
+	/**
+	 * Read the geometries from a single data array
+	 * 
+	 * @param data
+	 *            concatenated geometry bytes
+	 * @param offsets
+	 *            data offset of each geometry, followed by the data offset
+	 *            after the last geometry
+	 * @param filter
+	 *            geometry filter, must be thread safe
+	 * @return geometries in input order, null for filtered geometries
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public List<Geometry> read(byte[] data, int[] offsets,
+			GeometryFilter filter) throws IOException {
+		int count = Math.max(offsets.length - 1, 0);
+		ReadTask task = new ReadTask(null, data, offsets, filter, null, null,
+				0, count, new Geometry[count]);
+		invoke(task);
+		return Arrays.asList(task.geometries);
+	}
+
+	/**
+	 * Read a single geometry, reading the members of multi geometries,
+	 * geometry collections, compound curves, curve polygons, polyhedral
+	 * surfaces, and TINs in parallel. Member offsets are first located by
+	 * skipping the members without decoding them, and the members are then
+	 * decoded in parallel, split by member bytes, and assembled in order.
+	 * Collections no larger than the sequential bytes and other geometries
+	 * are read sequentially.
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry readGeometry(byte[] bytes) throws IOException {
+		return readGeometry(bytes, null);
+	}
+
+	/**
+	 * Read a single geometry, reading the members of multi geometries,
+	 * geometry collections, compound curves, curve polygons, polyhedral
+	 * surfaces, and TINs in parallel. Member offsets are first located by
+	 * skipping the members without decoding them, and the members are then
+	 * decoded in parallel, split by member bytes, and assembled in order.
+	 * Collections no larger than the sequential bytes and other geometries
+	 * are read sequentially.
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param filter
+	 *            geometry filter, must be thread safe
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry readGeometry(byte[] bytes, GeometryFilter filter)
+			throws IOException {
+
+		GeometryReader reader = new GeometryReader(bytes);
+		GeometryTypeInfo geometryTypeInfo = reader.readGeometryType();
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+
+		Class<? extends Geometry> memberType = GeometryReader
+				.getMemberType(geometryType);
+		if (memberType == null || (filter instanceof GeometryTypeFilter
+				&& !((GeometryTypeFilter) filter).filter(null,
+						geometryTypeInfo))) {
+			return GeometryReader.readGeometry(bytes, filter);
+		}
+
+		// Locate the members without decoding them
+		int count = reader.readCount(geometryType);
+		int remaining = bytes.length - reader.getByteReader().getNextByte();
+		if (count > remaining / 5) {
+			// Each member has at least a byte order and geometry type
+			throw new SFException("Invalid " + geometryType.name()
+					+ " element count: " + count + ", Remaining Bytes: "
+					+ remaining);
+		}
+		int[] offsets = new int[count + 1];
+		for (int i = 0; i < count; i++) {
+			offsets[i] = reader.getByteReader().getNextByte();
+			reader.skip();
+		}
+		offsets[count] = reader.getByteReader().getNextByte();
+
+		GeometryType containingType = geometryType;
+		if (memberType == Geometry.class) {
+			containingType = GeometryType.GEOMETRYCOLLECTION;
+		}
+		ReadTask task = new ReadTask(null, bytes, offsets, filter,
+				containingType, memberType, 0, count, new Geometry[count]);
+		invoke(task);
+
+		Geometry geometry = createCollection(geometryTypeInfo, filter,
+				task.geometries);
+		if (filter != null && !filter.filter(null, geometry)) {
+			geometry = null;
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Read the geometries of the batch task, in parallel when larger than the
+	 * sequential threshold
+	 * 
+	 * @param task
+	 *            batch read task
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void invoke(ReadTask task) throws IOException {
+		try {
+			if (task.isSequential()) {
+				task.readSequential();
+			} else {
+				pool.invoke(task);
+			}
+		} catch (UncheckedIOException e) {
+			throw new IOException(e.getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * Create the collection geometry from the read members, skipping filtered
+	 * members and pruning curve polygon holes as read sequentially
+	 * 
+	 * @param geometryTypeInfo
+	 *            collection geometry type info
+	 * @param filter
+	 *            geometry filter or null
+	 * @param members
+	 *            read members
+	 * @return collection geometry
+	 */
+	private static Geometry createCollection(
+			GeometryTypeInfo geometryTypeInfo, GeometryFilter filter,
+			Geometry[] members) {
+
+		boolean hasZ = geometryTypeInfo.hasZ();
+		boolean hasM = geometryTypeInfo.hasM();
+
+		Geometry geometry = null;
+
+		switch (geometryTypeInfo.getGeometryType()) {
+		case MULTIPOINT:
+			MultiPoint multiPoint = new MultiPoint(hasZ, hasM);
+			for (Geometry member : members) {
+				if (member != null) {
+					multiPoint.addPoint((Point) member);
+				}
+			}
+			geometry = multiPoint;
+			break;
+		case MULTILINESTRING:
+			MultiLineString multiLineString = new MultiLineString(hasZ,
+					hasM);
+			for (Geometry member : members) {
+				if (member != null) {
+					multiLineString.addLineString((LineString) member);
+				}
+			}
+			geometry = multiLineString;
+			break;
+		case MULTIPOLYGON:
+			MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
+			for (Geometry member : members) {
+				if (member != null) {
+					multiPolygon.addPolygon((Polygon) member);
+				}
+			}
+			geometry = multiPolygon;
+			break;
+		case COMPOUNDCURVE:
+			CompoundCurve compoundCurve = new CompoundCurve(hasZ, hasM);
+			for (Geometry member : members) {
+				if (member != null) {
+					compoundCurve.addLineString((LineString) member);
+				}
+			}
+			geometry = compoundCurve;
+			break;
+		case CURVEPOLYGON:
+			CurvePolygon<Curve> curvePolygon = new CurvePolygon<Curve>(hasZ,
+					hasM);
+			for (int i = 0; i < members.length; i++) {
+				Curve ring = (Curve) members[i];
+				if (ring != null
+						&& !GeometryReader.isDisjointHole(filter, i, ring)) {
+					curvePolygon.addRing(ring);
+				}
+			}
+			geometry = curvePolygon;
+			break;
+		case POLYHEDRALSURFACE:
+			PolyhedralSurface polyhedralSurface = new PolyhedralSurface(hasZ,
+					hasM);
+			for (Geometry member : members) {
+				if (member != null) {
+					polyhedralSurface.addPolygon((Polygon) member);
+				}
+			}
+			geometry = polyhedralSurface;
+			break;
+		case TIN:
+			TIN tin = new TIN(hasZ, hasM);
+			for (Geometry member : members) {
+				if (member != null) {
+					tin.addPolygon((Polygon) member);
+				}
+			}
+			geometry = tin;
+			break;
+		default:
+			GeometryCollection<Geometry> geometryCollection = new GeometryCollection<Geometry>(
+					hasZ, hasM);
+			for (Geometry member : members) {
+				if (member != null) {
+					geometryCollection.addGeometry(member);
+				}
+			}
+			geometry = geometryCollection;
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Shutdown the fork join pool if created by this reader
+	 */
+	@Override
+	public void close() {
+		if (ownedPool) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Recursive task reading a range of the batch
+	 */
+	private class ReadTask extends RecursiveAction {
+
+		/**
+		 * Serial version id
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * List of geometry bytes, or null when reading a data array
+		 */
+		private final List<byte[]> geometryBytes;
+
+		/**
+		 * Concatenated geometry bytes
+		 */
+		private final byte[] data;
+
+		/**
+		 * Data offsets
+		 */
+		private final int[] offsets;
+
+		/**
+		 * Geometry filter
+		 */
+		private final GeometryFilter filter;
+
+		/**
+		 * Containing geometry type, null for top level geometries
+		 */
+		private final GeometryType containingType;
+
+		/**
+		 * Expected geometry type
+		 */
+		private final Class<? extends Geometry> expectedType;
+
+		/**
+		 * First geometry index
+		 */
+		private final int start;
+
+		/**
+		 * Geometry index after the last
+		 */
+		private final int end;
+
+		/**
+		 * Geometry results
+		 */
+		private final Geometry[] geometries;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param geometryBytes
+		 *            list of geometry bytes
+		 * @param data
+		 *            concatenated geometry bytes
+		 * @param offsets
+		 *            data offsets
+		 * @param filter
+		 *            geometry filter
+		 * @param containingType
+		 *            containing geometry type
+		 * @param expectedType
+		 *            expected geometry type
+		 * @param start
+		 *            first geometry index
+		 * @param end
+		 *            geometry index after the last
+		 * @param geometries
+		 *            geometry results
+		 */
+		ReadTask(List<byte[]> geometryBytes, byte[] data, int[] offsets,
+				GeometryFilter filter, GeometryType containingType,
+				Class<? extends Geometry> expectedType, int start, int end,
+				Geometry[] geometries) {
+			this.geometryBytes = geometryBytes;
+			this.data = data;
+			this.offsets = offsets;
+			this.filter = filter;
+			this.containingType = containingType;
+			this.expectedType = expectedType;
+			this.start = start;
+			this.end = end;
+			this.geometries = geometries;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void compute() {
+			if (isSequential()) {
+				readSequential();
+			} else {
+				int middle = split();
+				invokeAll(
+						new ReadTask(geometryBytes, data, offsets, filter,
+								containingType, expectedType, start, middle,
+								geometries),
+						new ReadTask(geometryBytes, data, offsets, filter,
+								containingType, expectedType, middle, end,
+								geometries));
+			}
+		}
+
+		/**
+		 * Check if the range is read sequentially, by geometry count for
+		 * batches and by member bytes for collection members
+		 * 
+		 * @return true if sequential
+		 */
+		boolean isSequential() {
+			boolean sequential;
+			if (containingType == null) {
+				sequential = end - start <= sequentialThreshold;
+			} else {
+				sequential = end - start <= 1
+						|| offsets[end] - offsets[start] <= sequentialBytes;
+			}
+			return sequential;
+		}
+
+		/**
+		 * Split the range, at the middle geometry for batches and at the
+		 * member nearest the middle byte for collection members
+		 * 
+		 * @return split index, between the start and end exclusive
+		 */
+		private int split() {
+			int middle;
+			if (containingType == null) {
+				middle = (start + end) >>> 1;
+			} else {
+				int middleByte = offsets[start]
+						+ ((offsets[end] - offsets[start]) >>> 1);
+				middle = Arrays.binarySearch(offsets, start, end, middleByte);
+				if (middle < 0) {
+					middle = -middle - 1;
+				}
+				middle = Math.min(Math.max(middle, start + 1), end - 1);
+			}
+			return middle;
+		}
+
+		/**
+		 * Read the range of geometries with a single reused reader
+		 */
+		void readSequential() {
+			GeometryReader reader = new GeometryReader(new ByteArrayReader());
+			for (int i = start; i < end; i++) {
+				if (geometryBytes != null) {
+					reader.reset(geometryBytes.get(i));
+				} else {
+					reader.reset(data, offsets[i],
+							offsets[i + 1] - offsets[i]);
+				}
+				try {
+					geometries[i] = reader.read(filter, containingType,
+							expectedType);
+				} catch (IOException e) {
+					throw new UncheckedIOException(
+							"Failed to read geometry " + i, e);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,492 @@
+package mil.nga.sf.wkb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.CurvePolygon;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.PolyhedralSurface;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Batch writer of many Well Known Binary geometries in parallel. Each
+ * geometry is sized exactly and assigned a region of a single preallocated
+ * byte array. Batches are recursively split across a fork join pool down to
+ * a sequential threshold, with each sequential range written into its
+ * regions by a single reused writer. Batches no larger than the sequential
+ * threshold are written on the calling thread. The members of a single large
+ * collection geometry can also be written in parallel, split by encoded
+ * member bytes down to a sequential byte threshold, producing the same bytes
+ * as the sequential writer.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometryBatchWriter implements Closeable {
+
+	/**
+	 * Default maximum number of geometries written sequentially by a single
+	 * task
+	 */
+	public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 512;
+
+	/**
+	 * Default maximum number of collection member bytes written sequentially
+	 * by a single task
+	 */
+	public static final int DEFAULT_SEQUENTIAL_BYTES = 1024 * 1024;
+
+	/**
+	 * Number of bytes in a collection header: byte order, geometry type code,
+	 * and member count
+	 */
+	private static final int COLLECTION_HEADER_BYTES = 9;
+
+	/**
+	 * Fork join pool
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * True when the pool was created by and is closed with this writer
+	 */
+	private final boolean ownedPool;
+
+	/**
+	 * Maximum number of geometries written sequentially by a single task
+	 */
+	private int sequentialThreshold = DEFAULT_SEQUENTIAL_THRESHOLD;
+
+	/**
+	 * Maximum number of collection member bytes written sequentially by a
+	 * single task
+	 */
+	private int sequentialBytes = DEFAULT_SEQUENTIAL_BYTES;
+
+	/**
+	 * Constructor, using the common fork join pool
+	 */
+	public GeometryBatchWriter() {
+		this(ForkJoinPool.commonPool(), false);
+	}
+
+	/**
+	 * Constructor, creating a fork join pool closed with this writer
+	 * 
+	 * @param parallelism
+	 *            parallelism level
+	 */
+	public GeometryBatchWriter(int parallelism) {
+		this(new ForkJoinPool(parallelism), true);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param pool
+	 *            fork join pool, not closed with this writer
+	 */
+	public GeometryBatchWriter(ForkJoinPool pool) {
+		this(pool, false);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param pool
+	 *            fork join pool
+	 * @param ownedPool
+	 *            true if the pool is closed with this writer
+	 */
+	private GeometryBatchWriter(ForkJoinPool pool, boolean ownedPool) {
+		this.pool = pool;
+		this.ownedPool = ownedPool;
+	}
+
+	/**
+	 * Get the parallelism level
+	 * 
+	 * @return parallelism
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Get the maximum number of geometries written sequentially by a single
+	 * task
+	 * 
+	 * @return sequential threshold
+	 */
+	public int getSequentialThreshold() {
+		return sequentialThreshold;
+	}
+
+	/**
+	 * Set the maximum number of geometries written sequentially by a single
+	 * task
+	 * 
+	 * @param sequentialThreshold
+	 *            sequential threshold, at least 1
+	 */
+	public void setSequentialThreshold(int sequentialThreshold) {
+		if (sequentialThreshold < 1) {
+			throw new SFException("Sequential threshold must be at least 1: "
+					+ sequentialThreshold);
+		}
+		this.sequentialThreshold = sequentialThreshold;
+	}
+
+	/**
+	 * Get the maximum number of collection member bytes written sequentially
+	 * by a single task when writing a single geometry
+	 * 
+	 * @return sequential bytes
+	 */
+	public int getSequentialBytes() {
+		return sequentialBytes;
+	}
+
+	/**
+	 * Set the maximum number of collection member bytes written sequentially
+	 * by a single task when writing a single geometry
+	 * 
+	 * @param sequentialBytes
+	 *            sequential bytes, at least 1
+	 */
+	public void setSequentialBytes(int sequentialBytes) {
+		if (sequentialBytes < 1) {
+			throw new SFException(
+					"Sequential bytes must be at least 1: " + sequentialBytes);
+		}
+		this.sequentialBytes = sequentialBytes;
+	}
+
+	/**
+	 * Encode the geometries into a single batch
+	 * 
+	 * @param geometries
+	 *            geometries, null geometries are encoded as zero length
+	 * @return geometry batch
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public GeometryBatch encode(List<? extends Geometry> geometries)
+			throws IOException {
+		return encode(geometries, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Encode the geometries into a single batch
+	 * 
+	 * @param geometries
+	 *            geometries, null geometries are encoded as zero length
+	 * @param byteOrder
+	 *            byte order
+	 * @return geometry batch
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public GeometryBatch encode(List<? extends Geometry> geometries,
+			ByteOrder byteOrder) throws IOException {
+		int[] offsets = GeometryBatchEncoder.offsets(geometries);
+		byte[] data = new byte[offsets[geometries.size()]];
+		invoke(new WriteTask(geometries, false, byteOrder, data, offsets, 0,
+				geometries.size()));
+		return new GeometryBatch(data, offsets);
+	}
+
+	/**
+	 * Write a geometry, writing the members of a collection geometry in
+	 * parallel when more than the sequential bytes
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return well-known bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public byte[] writeGeometry(Geometry geometry) throws IOException {
+		return writeGeometry(geometry, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Write a geometry, writing the members of a collection geometry in
+	 * parallel when more than the sequential bytes
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public byte[] writeGeometry(Geometry geometry, ByteOrder byteOrder)
+			throws IOException {
+
+		List<? extends Geometry> members = getMembers(geometry);
+		if (members == null) {
+			return GeometryWriter.writeGeometry(geometry, byteOrder);
+		}
+
+		// Assign each member a region after the collection header
+		int[] offsets = new int[members.size() + 1];
+		long offset = COLLECTION_HEADER_BYTES;
+		for (int i = 0; i < members.size(); i++) {
+			offsets[i] = (int) offset;
+			offset += GeometryWriter.sizeOf(members.get(i));
+			if (offset > Integer.MAX_VALUE - 8) {
+				throw new SFException(
+						"Geometry larger than a single byte array: "
+								+ offset);
+			}
+		}
+		offsets[members.size()] = (int) offset;
+
+		byte[] bytes = new byte[(int) offset];
+
+		// Write the collection header once
+		ByteArrayWriter writer = new ByteArrayWriter(bytes, 0,
+				COLLECTION_HEADER_BYTES, byteOrder);
+		writer.writeByte(
+				byteOrder == ByteOrder.BIG_ENDIAN ? (byte) 0 : (byte) 1);
+		writer.writeInt(GeometryCodes.getCode(geometry));
+		writer.writeInt(members.size());
+
+		invoke(new WriteTask(members, true, byteOrder, bytes, offsets, 0,
+				members.size()));
+
+		return bytes;
+	}
+
+	/**
+	 * Write the geometries of the batch task, in parallel when larger than
+	 * the sequential threshold
+	 * 
+	 * @param task
+	 *            batch write task
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void invoke(WriteTask task) throws IOException {
+		try {
+			if (task.isSequential()) {
+				task.writeSequential();
+			} else {
+				pool.invoke(task);
+			}
+		} catch (UncheckedIOException e) {
+			throw new IOException(e.getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * Get the members of a collection geometry, written with headers in order
+	 * after the member count. Polygon and triangle rings are written without
+	 * headers and are not members.
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return members, null if not a collection written in parallel
+	 */
+	private static List<? extends Geometry> getMembers(Geometry geometry) {
+		List<? extends Geometry> members = null;
+		switch (geometry.getGeometryType()) {
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+			members = ((GeometryCollection<?>) geometry).getGeometries();
+			break;
+		case COMPOUNDCURVE:
+			members = ((CompoundCurve) geometry).getLineStrings();
+			break;
+		case CURVEPOLYGON:
+			members = ((CurvePolygon<?>) geometry).getRings();
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			members = ((PolyhedralSurface) geometry).getPolygons();
+			break;
+		default:
+		}
+		return members;
+	}
+
+	/**
+	 * Shutdown the fork join pool if created by this writer
+	 */
+	@Override
+	public void close() {
+		if (ownedPool) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Recursive task writing a range of the batch into assigned regions
+	 */
+	private class WriteTask extends RecursiveAction {
+
+		/**
+		 * Serial version id
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Geometries
+		 */
+		private final List<? extends Geometry> geometries;
+
+		/**
+		 * True when writing the members of a single collection geometry
+		 */
+		private final boolean members;
+
+		/**
+		 * Byte order
+		 */
+		private final ByteOrder byteOrder;
+
+		/**
+		 * Bytes to write into
+		 */
+		private final byte[] data;
+
+		/**
+		 * Data offsets of each geometry region followed by the region end
+		 */
+		private final int[] offsets;
+
+		/**
+		 * First geometry index
+		 */
+		private final int start;
+
+		/**
+		 * Geometry index after the last
+		 */
+		private final int end;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param geometries
+		 *            geometries
+		 * @param members
+		 *            true when writing collection members
+		 * @param byteOrder
+		 *            byte order
+		 * @param data
+		 *            bytes to write into
+		 * @param offsets
+		 *            data offsets
+		 * @param start
+		 *            first geometry index
+		 * @param end
+		 *            geometry index after the last
+		 */
+		WriteTask(List<? extends Geometry> geometries, boolean members,
+				ByteOrder byteOrder, byte[] data, int[] offsets, int start,
+				int end) {
+			this.geometries = geometries;
+			this.members = members;
+			this.byteOrder = byteOrder;
+			this.data = data;
+			this.offsets = offsets;
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void compute() {
+			if (isSequential()) {
+				writeSequential();
+			} else {
+				int middle = split();
+				invokeAll(
+						new WriteTask(geometries, members, byteOrder, data,
+								offsets, start, middle),
+						new WriteTask(geometries, members, byteOrder, data,
+								offsets, middle, end));
+			}
+		}
+
+		/**
+		 * Check if the range is written sequentially, by geometry count for
+		 * batches and by member bytes for collection members
+		 * 
+		 * @return true if sequential
+		 */
+		boolean isSequential() {
+			boolean sequential;
+			if (members) {
+				sequential = end - start <= 1
+						|| offsets[end] - offsets[start] <= sequentialBytes;
+			} else {
+				sequential = end - start <= sequentialThreshold;
+			}
+			return sequential;
+		}
+
+		/**
+		 * Split the range, at the middle geometry for batches and at the
+		 * member nearest the middle byte for collection members
+		 * 
+		 * @return split index, between the start and end exclusive
+		 */
+		private int split() {
+			int middle;
+			if (members) {
+				int middleByte = offsets[start]
+						+ ((offsets[end] - offsets[start]) >>> 1);
+				middle = Arrays.binarySearch(offsets, start, end, middleByte);
+				if (middle < 0) {
+					middle = -middle - 1;
+				}
+				middle = Math.min(Math.max(middle, start + 1), end - 1);
+			} else {
+				middle = (start + end) >>> 1;
+			}
+			return middle;
+		}
+
+		/**
+		 * Write the range of geometries into their regions with a single
+		 * reused writer
+		 */
+		void writeSequential() {
+			ByteArrayWriter writer = new ByteArrayWriter(data, offsets[start],
+					offsets[end] - offsets[start], byteOrder);
+			GeometryWriter geometryWriter = new GeometryWriter(writer);
+			for (int i = start; i < end; i++) {
+				Geometry geometry = geometries.get(i);
+				if (geometry != null) {
+					try {
+						geometryWriter.write(geometry);
+					} catch (IOException e) {
+						throw new UncheckedIOException(
+								"Failed to write geometry " + i, e);
+					}
+				}
+			}
+		}
+
+	}
+
+}
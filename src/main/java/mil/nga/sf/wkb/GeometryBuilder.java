@@ -0,0 +1,641 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Builder writing Well Known Binary directly from structure and coordinate
+ * calls, without creating geometry objects. Each geometry begins with its
+ * type, dimensions, and the number of coordinates or nested geometries,
+ * writes its coordinates or nested geometries, and ends. Byte order bytes,
+ * geometry type codes, and counts are written by the builder. Polygon and
+ * triangle rings are line strings written without headers, in the dimensions
+ * of the polygon. The structure is validated as it is built: counts must
+ * match, coordinates are only written to points, line strings, circular
+ * strings, and rings, and nested geometry types must be valid members of the
+ * containing geometry.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometryBuilder {
+
+	/**
+	 * Byte writer
+	 */
+	private final ByteWriter writer;
+
+	/**
+	 * Open geometry types, by depth
+	 */
+	private GeometryType[] types = new GeometryType[8];
+
+	/**
+	 * Open geometry has z flags, by depth
+	 */
+	private boolean[] hasZ = new boolean[8];
+
+	/**
+	 * Open geometry has m flags, by depth
+	 */
+	private boolean[] hasM = new boolean[8];
+
+	/**
+	 * Open geometry coordinate or nested geometry counts, by depth
+	 */
+	private int[] counts = new int[8];
+
+	/**
+	 * Open geometry written coordinates or nested geometries, by depth
+	 */
+	private int[] written = new int[8];
+
+	/**
+	 * Number of open geometries
+	 */
+	private int depth = 0;
+
+	/**
+	 * Constructor
+	 */
+	public GeometryBuilder() {
+		this(ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public GeometryBuilder(ByteOrder byteOrder) {
+		this(new ByteWriter(byteOrder));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param writer
+	 *            byte writer
+	 */
+	public GeometryBuilder(ByteWriter writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Get the byte writer
+	 * 
+	 * @return byte writer
+	 */
+	public ByteWriter getByteWriter() {
+		return writer;
+	}
+
+	/**
+	 * Get the written bytes
+	 * 
+	 * @return written bytes
+	 */
+	public byte[] getBytes() {
+		return writer.getBytes();
+	}
+
+	/**
+	 * Close the byte writer
+	 */
+	public void close() {
+		writer.close();
+	}
+
+	/**
+	 * Get the number of open geometries
+	 * 
+	 * @return depth, 0 when no geometry is being built
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Check if all begun geometries have ended
+	 * 
+	 * @return true if complete
+	 */
+	public boolean isComplete() {
+		return depth == 0;
+	}
+
+	/**
+	 * Begin a geometry
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @param count
+	 *            number of coordinates for points (1), line strings, circular
+	 *            strings, and rings, or the number of nested geometries
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void begin(GeometryType geometryType, int count, boolean hasZ,
+			boolean hasM) throws IOException {
+
+		if (count < 0) {
+			throw new SFException("Negative count of " + count + " for "
+					+ geometryType.name());
+		}
+		if (geometryType == GeometryType.POINT && count != 1) {
+			throw new SFException(
+					"Point count must be 1, found " + count);
+		}
+
+		boolean ring = false;
+		if (depth > 0) {
+			int parent = depth - 1;
+			GeometryType parentType = types[parent];
+			if (isPointSequence(parentType)) {
+				throw new SFException("Geometry " + geometryType.name()
+						+ " can not be nested in " + parentType.name());
+			}
+			if (written[parent] == counts[parent]) {
+				throw new SFException("Geometry " + parentType.name()
+						+ " already has all " + counts[parent]
+						+ " nested geometries");
+			}
+			if (!isMember(parentType, geometryType)) {
+				throw new SFException("Geometry " + geometryType.name()
+						+ " is not a valid member of " + parentType.name());
+			}
+			ring = parentType == GeometryType.POLYGON
+					|| parentType == GeometryType.TRIANGLE;
+			if (ring && (hasZ != this.hasZ[parent]
+					|| hasM != this.hasM[parent])) {
+				throw new SFException(
+						"Ring dimensions must match the containing "
+								+ parentType.name());
+			}
+		} else if (!isMember(GeometryType.GEOMETRY, geometryType)) {
+			throw new SFException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+
+		if (!ring) {
+			writer.writeByte(writer.getByteOrder() == ByteOrder.BIG_ENDIAN
+					? (byte) 0
+					: (byte) 1);
+			writer.writeInt(GeometryCodes.getCode(geometryType, hasZ, hasM));
+		}
+		if (geometryType != GeometryType.POINT) {
+			writer.writeInt(count);
+		}
+
+		if (depth > 0) {
+			written[depth - 1]++;
+		}
+		push(geometryType, hasZ, hasM, count);
+	}
+
+	/**
+	 * Begin a point, followed by its coordinate
+	 * 
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void beginPoint(boolean hasZ, boolean hasM) throws IOException {
+		begin(GeometryType.POINT, 1, hasZ, hasM);
+	}
+
+	/**
+	 * Begin a line string
+	 * 
+	 * @param numPoints
+	 *            number of points
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void beginLineString(int numPoints, boolean hasZ, boolean hasM)
+			throws IOException {
+		begin(GeometryType.LINESTRING, numPoints, hasZ, hasM);
+	}
+
+	/**
+	 * Begin a polygon, followed by its rings
+	 * 
+	 * @param numRings
+	 *            number of rings
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void beginPolygon(int numRings, boolean hasZ, boolean hasM)
+			throws IOException {
+		begin(GeometryType.POLYGON, numRings, hasZ, hasM);
+	}
+
+	/**
+	 * Begin a ring of the current polygon or triangle, in the polygon
+	 * dimensions
+	 * 
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void beginRing(int numPoints) throws IOException {
+		if (depth == 0) {
+			throw new SFException("Ring must be nested in a polygon");
+		}
+		begin(GeometryType.LINESTRING, numPoints, hasZ[depth - 1],
+				hasM[depth - 1]);
+	}
+
+	/**
+	 * Begin a multi point, followed by its points
+	 * 
+	 * @param numPoints
+	 *            number of points
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void beginMultiPoint(int numPoints, boolean hasZ, boolean hasM)
+			throws IOException {
+		begin(GeometryType.MULTIPOINT, numPoints, hasZ, hasM);
+	}
+
+	/**
+	 * Begin a multi line string, followed by its line strings
+	 * 
+	 * @param numLineStrings
+	 *            number of line strings
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void beginMultiLineString(int numLineStrings, boolean hasZ,
+			boolean hasM) throws IOException {
+		begin(GeometryType.MULTILINESTRING, numLineStrings, hasZ, hasM);
+	}
+
+	/**
+	 * Begin a multi polygon, followed by its polygons
+	 * 
+	 * @param numPolygons
+	 *            number of polygons
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void beginMultiPolygon(int numPolygons, boolean hasZ, boolean hasM)
+			throws IOException {
+		begin(GeometryType.MULTIPOLYGON, numPolygons, hasZ, hasM);
+	}
+
+	/**
+	 * Begin a geometry collection, followed by its geometries
+	 * 
+	 * @param numGeometries
+	 *            number of geometries
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void beginGeometryCollection(int numGeometries, boolean hasZ,
+			boolean hasM) throws IOException {
+		begin(GeometryType.GEOMETRYCOLLECTION, numGeometries, hasZ, hasM);
+	}
+
+	/**
+	 * Write a coordinate of the current geometry without z or m values
+	 * 
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void coordinate(double x, double y) throws IOException {
+		int current = nextCoordinate();
+		if (hasZ[current] || hasM[current]) {
+			throw new SFException("Coordinate of " + types[current].name()
+					+ " requires z or m values");
+		}
+		writer.writeDouble(x);
+		writer.writeDouble(y);
+		written[current]++;
+	}
+
+	/**
+	 * Write a coordinate of the current geometry. The z and m values are
+	 * written only when the geometry has z or m values.
+	 * 
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 * @param z
+	 *            z value
+	 * @param m
+	 *            m value
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void coordinate(double x, double y, double z, double m)
+			throws IOException {
+		int current = nextCoordinate();
+		writer.writeDouble(x);
+		writer.writeDouble(y);
+		if (hasZ[current]) {
+			writer.writeDouble(z);
+		}
+		if (hasM[current]) {
+			writer.writeDouble(m);
+		}
+		written[current]++;
+	}
+
+	/**
+	 * Write coordinates of the current geometry from interleaved values (x,
+	 * y[, z][, m]) in the dimensions of the geometry
+	 * 
+	 * @param coordinates
+	 *            interleaved coordinates
+	 * @param offset
+	 *            array index of the first value
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void coordinates(double[] coordinates, int offset, int numPoints)
+			throws IOException {
+		if (depth == 0) {
+			throw new SFException("No geometry to write coordinates to");
+		}
+		int current = depth - 1;
+		int dimension = PackedGeometry.dimension(hasZ[current],
+				hasM[current]);
+		if (offset < 0 || numPoints < 0 || offset
+				+ (long) numPoints * dimension > coordinates.length) {
+			throw new IndexOutOfBoundsException("Offset: " + offset
+					+ ", Points: " + numPoints + ", Dimension: " + dimension
+					+ ", Coordinates: " + coordinates.length);
+		}
+		if (numPoints > 0) {
+			nextCoordinate();
+			if (numPoints > counts[current] - written[current]) {
+				throw new SFException("Geometry " + types[current].name()
+						+ " has " + (counts[current] - written[current])
+						+ " remaining coordinates, found " + numPoints);
+			}
+			if (writer instanceof BulkByteWriter) {
+				((BulkByteWriter) writer).writeDoubles(coordinates, offset,
+						numPoints * dimension);
+			} else {
+				for (int i = 0; i < numPoints * dimension; i++) {
+					writer.writeDouble(coordinates[offset + i]);
+				}
+			}
+			written[current] += numPoints;
+		}
+	}
+
+	/**
+	 * End the current geometry
+	 */
+	public void end() {
+		if (depth == 0) {
+			throw new SFException("No geometry to end");
+		}
+		int current = depth - 1;
+		if (written[current] != counts[current]) {
+			throw new SFException("Geometry " + types[current].name()
+					+ " expected " + counts[current] + " "
+					+ (isPointSequence(types[current]) ? "coordinates"
+							: "nested geometries")
+					+ ", found " + written[current]);
+		}
+		depth--;
+	}
+
+	/**
+	 * End the current ring
+	 */
+	public void endRing() {
+		if (depth < 2 || types[depth - 1] != GeometryType.LINESTRING
+				|| (types[depth - 2] != GeometryType.POLYGON
+						&& types[depth - 2] != GeometryType.TRIANGLE)) {
+			throw new SFException("No ring to end");
+		}
+		end();
+	}
+
+	/**
+	 * Write a complete point
+	 * 
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void point(double x, double y) throws IOException {
+		beginPoint(false, false);
+		coordinate(x, y);
+		end();
+	}
+
+	/**
+	 * Write a complete line string from interleaved coordinates
+	 * 
+	 * @param coordinates
+	 *            interleaved coordinates (x, y[, z][, m])
+	 * @param offset
+	 *            array index of the first value
+	 * @param numPoints
+	 *            number of points
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void lineString(double[] coordinates, int offset, int numPoints,
+			boolean hasZ, boolean hasM) throws IOException {
+		beginLineString(numPoints, hasZ, hasM);
+		coordinates(coordinates, offset, numPoints);
+		end();
+	}
+
+	/**
+	 * Write a complete ring of the current polygon or triangle from
+	 * interleaved coordinates in the polygon dimensions
+	 * 
+	 * @param coordinates
+	 *            interleaved coordinates (x, y[, z][, m])
+	 * @param offset
+	 *            array index of the first value
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void ring(double[] coordinates, int offset, int numPoints)
+			throws IOException {
+		beginRing(numPoints);
+		coordinates(coordinates, offset, numPoints);
+		endRing();
+	}
+
+	/**
+	 * Validate that the current geometry accepts another coordinate
+	 * 
+	 * @return current depth index
+	 */
+	private int nextCoordinate() {
+		if (depth == 0) {
+			throw new SFException("No geometry to write coordinates to");
+		}
+		int current = depth - 1;
+		GeometryType type = types[current];
+		if (!isPointSequence(type)) {
+			throw new SFException(
+					"Coordinates can not be written to " + type.name());
+		}
+		if (written[current] == counts[current]) {
+			throw new SFException("Geometry " + type.name()
+					+ " already has all " + counts[current] + " coordinates");
+		}
+		return current;
+	}
+
+	/**
+	 * Push an open geometry
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @param z
+	 *            has z values
+	 * @param m
+	 *            has m values
+	 * @param count
+	 *            coordinate or nested geometry count
+	 */
+	private void push(GeometryType geometryType, boolean z, boolean m,
+			int count) {
+		if (depth == types.length) {
+			int length = depth * 2;
+			types = Arrays.copyOf(types, length);
+			hasZ = Arrays.copyOf(hasZ, length);
+			hasM = Arrays.copyOf(hasM, length);
+			counts = Arrays.copyOf(counts, length);
+			written = Arrays.copyOf(written, length);
+		}
+		types[depth] = geometryType;
+		hasZ[depth] = z;
+		hasM[depth] = m;
+		counts[depth] = count;
+		written[depth] = 0;
+		depth++;
+	}
+
+	/**
+	 * Check if the geometry type is written as a sequence of coordinates
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @return true if a point, line string, or circular string
+	 */
+	private static boolean isPointSequence(GeometryType geometryType) {
+		return geometryType == GeometryType.POINT
+				|| geometryType == GeometryType.LINESTRING
+				|| geometryType == GeometryType.CIRCULARSTRING;
+	}
+
+	/**
+	 * Check if the geometry type is a valid member of the containing type
+	 * 
+	 * @param containingType
+	 *            containing geometry type, {@link GeometryType#GEOMETRY} for
+	 *            any geometry
+	 * @param geometryType
+	 *            member geometry type
+	 * @return true if a valid member
+	 */
+	private static boolean isMember(GeometryType containingType,
+			GeometryType geometryType) {
+		boolean member;
+		switch (containingType) {
+		case MULTIPOINT:
+			member = geometryType == GeometryType.POINT;
+			break;
+		case MULTILINESTRING:
+		case POLYGON:
+		case TRIANGLE:
+			member = geometryType == GeometryType.LINESTRING;
+			break;
+		case MULTIPOLYGON:
+		case POLYHEDRALSURFACE:
+			member = geometryType == GeometryType.POLYGON;
+			break;
+		case TIN:
+			member = geometryType == GeometryType.POLYGON
+					|| geometryType == GeometryType.TRIANGLE;
+			break;
+		case COMPOUNDCURVE:
+			member = geometryType == GeometryType.LINESTRING
+					|| geometryType == GeometryType.CIRCULARSTRING;
+			break;
+		case CURVEPOLYGON:
+		case MULTICURVE:
+			member = geometryType == GeometryType.LINESTRING
+					|| geometryType == GeometryType.CIRCULARSTRING
+					|| geometryType == GeometryType.COMPOUNDCURVE;
+			break;
+		case MULTISURFACE:
+			member = geometryType == GeometryType.POLYGON
+					|| geometryType == GeometryType.CURVEPOLYGON;
+			break;
+		default:
+			member = geometryType != GeometryType.GEOMETRY
+					&& geometryType != GeometryType.CURVE
+					&& geometryType != GeometryType.SURFACE;
+		}
+		return member;
+	}
+
+}
@@ -12,6 +12,87 @@ import mil.nga.sf.util.SFException;
  */
 public class GeometryCodes {
 
+	/**
+	 * 2.5D geometry type code flag
+	 */
+	private static final long WKB25D = 0x80000000L;
+
+	/**
+	 * Number of geometry codes in the geometry type info lookup tables,
+	 * covering the codes of all geometry modes
+	 */
+	private static final int TYPE_INFO_CODES = 4000;
+
+	/**
+	 * Shared geometry type info by geometry code, null for invalid codes
+	 */
+	private static final GeometryTypeInfo[] TYPE_INFO = createTypeInfo(
+			false);
+
+	/**
+	 * Shared geometry type info of 2.5D flagged codes by geometry code
+	 * without the flag, null for invalid codes
+	 */
+	private static final GeometryTypeInfo[] TYPE_INFO_25D = createTypeInfo(
+			true);
+
+	/**
+	 * Create the geometry type info lookup table of all valid geometry codes
+	 * 
+	 * @param wkb25d
+	 *            true for 2.5D flagged codes
+	 * @return geometry type info by geometry code
+	 */
+	private static GeometryTypeInfo[] createTypeInfo(boolean wkb25d) {
+		GeometryTypeInfo[] typeInfo = new GeometryTypeInfo[TYPE_INFO_CODES];
+		for (int mode = 0; mode < 4; mode++) {
+			for (int type = 0; type <= 17; type++) {
+				int code = mode * 1000 + type;
+				typeInfo[code] = new GeometryTypeInfo(code,
+						getGeometryType(code), wkb25d || hasZ(code),
+						hasM(code));
+			}
+		}
+		return typeInfo;
+	}
+
+	/**
+	 * Get the shared geometry type info of an unsigned geometry type code as
+	 * read from well-known binary, including 2.5D flagged codes
+	 * 
+	 * @param unsignedCode
+	 *            unsigned geometry type code
+	 * @return geometry type info
+	 * @throws SFException
+	 *             upon an invalid geometry code
+	 * @since 2.0.5
+	 */
+	public static GeometryTypeInfo getGeometryTypeInfo(long unsignedCode) {
+
+		GeometryTypeInfo[] typeInfo = TYPE_INFO;
+		long code = unsignedCode;
+		if (code >= WKB25D) {
+			typeInfo = TYPE_INFO_25D;
+			code -= WKB25D;
+		}
+
+		GeometryTypeInfo geometryTypeInfo = null;
+		if (code >= 0 && code < TYPE_INFO_CODES) {
+			geometryTypeInfo = typeInfo[(int) code];
+		}
+
+		if (geometryTypeInfo == null) {
+			// Report the invalid type or mode of the code
+			int intCode = (int) code;
+			getGeometryType(intCode);
+			hasZ(intCode);
+			hasM(intCode);
+			throw new SFException("Unsupported Geometry code: " + code);
+		}
+
+		return geometryTypeInfo;
+	}
+
 	/**
 	 * Get the geometry code from the geometry
 	 * 
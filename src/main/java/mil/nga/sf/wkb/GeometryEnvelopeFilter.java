@@ -0,0 +1,155 @@
+package mil.nga.sf.wkb;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * Geometry Filter discarding geometries disjoint from a query envelope. Top
+ * level geometries and members of multi geometries and geometry collections
+ * are filtered by their x and y bounds. Collections are read with their
+ * disjoint members discarded, and collections left without members are
+ * discarded as disjoint. The bounds of each filtered geometry are scanned
+ * before reading and disjoint geometries are never created. Seekable byte
+ * readers seek back after the scan and read intersecting geometries again.
+ * Other byte readers, such as streams, record the values read while scanning
+ * and replay them to read intersecting geometries, so stream bytes are read
+ * once. Collections themselves are not scanned, so coordinates are scanned
+ * once regardless of the collection nesting depth. Polygon holes disjoint
+ * from the query envelope are pruned. An optional geometry filter is applied
+ * in addition to the envelope.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometryEnvelopeFilter implements GeometryTypeFilter {
+
+	/**
+	 * Query envelope
+	 */
+	private final GeometryEnvelope envelope;
+
+	/**
+	 * Additional geometry filter
+	 */
+	private final GeometryFilter filter;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param envelope
+	 *            query envelope
+	 */
+	public GeometryEnvelopeFilter(GeometryEnvelope envelope) {
+		this(envelope, null);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param envelope
+	 *            query envelope
+	 * @param filter
+	 *            additional geometry filter, applied by type before reading
+	 *            when a {@link GeometryTypeFilter}
+	 */
+	public GeometryEnvelopeFilter(GeometryEnvelope envelope,
+			GeometryFilter filter) {
+		this.envelope = envelope;
+		this.filter = filter;
+	}
+
+	/**
+	 * Get the query envelope
+	 * 
+	 * @return query envelope
+	 */
+	public GeometryEnvelope getEnvelope() {
+		return envelope;
+	}
+
+	/**
+	 * Get the additional geometry filter
+	 * 
+	 * @return geometry filter or null
+	 */
+	public GeometryFilter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Determine if a geometry is filtered by the query envelope. Top level
+	 * and multi geometry or geometry collection members are filtered, except
+	 * for collections themselves.
+	 * 
+	 * @param containingType
+	 *            containing geometry type, null for the top level geometry
+	 * @param geometryType
+	 *            geometry type
+	 * @return true if filtered by the envelope
+	 */
+	public boolean isFiltered(GeometryType containingType,
+			GeometryType geometryType) {
+		return isCollection(containingType, true)
+				&& !isCollection(geometryType, false);
+	}
+
+	/**
+	 * Check if the geometry envelope intersects the query envelope
+	 * 
+	 * @param geometryEnvelope
+	 *            geometry envelope, null for empty geometries
+	 * @return true if intersects
+	 */
+	public boolean intersects(GeometryEnvelope geometryEnvelope) {
+		return geometryEnvelope != null
+				&& geometryEnvelope.getMinX() <= envelope.getMaxX()
+				&& geometryEnvelope.getMaxX() >= envelope.getMinX()
+				&& geometryEnvelope.getMinY() <= envelope.getMaxY()
+				&& geometryEnvelope.getMaxY() >= envelope.getMinY();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean filter(GeometryType containingType,
+			GeometryTypeInfo geometryTypeInfo) {
+		return !(filter instanceof GeometryTypeFilter)
+				|| ((GeometryTypeFilter) filter).filter(containingType,
+						geometryTypeInfo);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Multi geometries and geometry collections without members intersecting
+	 * the query envelope are rejected.
+	 */
+	@Override
+	public boolean filter(GeometryType containingType, Geometry geometry) {
+		boolean passes = !geometry.isEmpty()
+				|| !isCollection(geometry.getGeometryType(), false);
+		if (passes && filter != null) {
+			passes = filter.filter(containingType, geometry);
+		}
+		return passes;
+	}
+
+	/**
+	 * Check if the geometry type is a multi geometry or geometry collection
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @param topLevel
+	 *            value for a top level null geometry type
+	 * @return true if a collection
+	 */
+	private static boolean isCollection(GeometryType geometryType,
+			boolean topLevel) {
+		return geometryType == null ? topLevel
+				: GeometryReader.isCollection(geometryType);
+	}
+
+}
@@ -0,0 +1,54 @@
+package mil.nga.sf.wkb;
+
+import mil.nga.sf.GeometryType;
+
+/**
+ * Handler of geometry parse events pushed while walking Well Known Binary
+ * bytes, in the same depth first structure read by {@link GeometryReader}.
+ * Each geometry begins, fires its coordinates or nested geometries, and ends.
+ * Polygon and triangle rings are line string events.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public interface GeometryHandler {
+
+	/**
+	 * Begin a geometry
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @param count
+	 *            number of coordinates for points, line strings, circular
+	 *            strings, and rings, or the number of nested geometries
+	 */
+	public void beginGeometry(GeometryType geometryType, boolean hasZ,
+			boolean hasM, int count);
+
+	/**
+	 * Coordinate of the current geometry
+	 * 
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 * @param z
+	 *            z value, NaN when the geometry has no z values
+	 * @param m
+	 *            m value, NaN when the geometry has no m values
+	 */
+	public void coordinate(double x, double y, double z, double m);
+
+	/**
+	 * End the current geometry
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 */
+	public void endGeometry(GeometryType geometryType);
+
+}
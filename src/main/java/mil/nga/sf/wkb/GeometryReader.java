@@ -1,7 +1,12 @@
 package mil.nga.sf.wkb;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import mil.nga.sf.CircularString;
 import mil.nga.sf.CompoundCurve;
@@ -9,6 +14,7 @@ import mil.nga.sf.Curve;
 import mil.nga.sf.CurvePolygon;
 import mil.nga.sf.Geometry;
 import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryEnvelope;
 import mil.nga.sf.GeometryType;
 import mil.nga.sf.LineString;
 import mil.nga.sf.MultiLineString;
@@ -20,6 +26,7 @@ import mil.nga.sf.PolyhedralSurface;
 import mil.nga.sf.TIN;
 import mil.nga.sf.Triangle;
 import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.GeometryEnvelopeBuilder;
 import mil.nga.sf.util.SFException;
 import mil.nga.sf.util.filter.GeometryFilter;
 
@@ -30,11 +37,6 @@ import mil.nga.sf.util.filter.GeometryFilter;
  */
 public class GeometryReader {
 
-	/**
-	 * 2.5D bit
-	 */
-	private static final long WKB25D = Long.decode("0x80000000");
-
 	/**
 	 * Read a geometry from well-known bytes
 	 * 
@@ -104,7 +106,88 @@ public class GeometryReader {
 	public static <T extends Geometry> T readGeometry(byte[] bytes,
 			GeometryFilter filter, Class<T> expectedType) throws IOException {
 		T geometry = null;
-		GeometryReader reader = new GeometryReader(bytes);
+		GeometryReader reader = borrowReader(bytes);
+		try {
+			geometry = reader.read(filter, expectedType);
+		} finally {
+			releaseReader(reader);
+		}
+		return geometry;
+	}
+
+	/**
+	 * Read a geometry from well-known bytes in a byte buffer, from the buffer
+	 * position to the buffer limit. Heap, direct, and memory mapped buffers
+	 * are read in place. The buffer position, limit, and byte order are not
+	 * modified.
+	 * 
+	 * @param buffer
+	 *            geometry byte buffer
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static Geometry readGeometry(ByteBuffer buffer) throws IOException {
+		return readGeometry(buffer, null, null);
+	}
+
+	/**
+	 * Read a geometry from well-known bytes in a byte buffer
+	 * 
+	 * @param buffer
+	 *            geometry byte buffer
+	 * @param filter
+	 *            geometry filter
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static Geometry readGeometry(ByteBuffer buffer,
+			GeometryFilter filter) throws IOException {
+		return readGeometry(buffer, filter, null);
+	}
+
+	/**
+	 * Read a geometry from well-known bytes in a byte buffer
+	 * 
+	 * @param buffer
+	 *            geometry byte buffer
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static <T extends Geometry> T readGeometry(ByteBuffer buffer,
+			Class<T> expectedType) throws IOException {
+		return readGeometry(buffer, null, expectedType);
+	}
+
+	/**
+	 * Read a geometry from well-known bytes in a byte buffer
+	 * 
+	 * @param buffer
+	 *            geometry byte buffer
+	 * @param filter
+	 *            geometry filter
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static <T extends Geometry> T readGeometry(ByteBuffer buffer,
+			GeometryFilter filter, Class<T> expectedType) throws IOException {
+		T geometry = null;
+		GeometryReader reader = new GeometryReader(buffer);
 		try {
 			geometry = reader.read(filter, expectedType);
 		} finally {
@@ -113,11 +196,79 @@ public class GeometryReader {
 		return geometry;
 	}
 
+	/**
+	 * Thread confined reusable reader for the static byte array reads, absent
+	 * while in use
+	 */
+	private static final ThreadLocal<GeometryReader> threadReader = new ThreadLocal<>();
+
+	/**
+	 * Borrow the thread confined reusable reader, or create a reader when in
+	 * use by a nested read
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @return geometry reader
+	 */
+	private static GeometryReader borrowReader(byte[] bytes) {
+		GeometryReader reader = threadReader.get();
+		if (reader != null) {
+			threadReader.set(null);
+			reader.reset(bytes);
+		} else {
+			reader = new GeometryReader(bytes);
+		}
+		return reader;
+	}
+
+	/**
+	 * Release a borrowed reader back to the thread for reuse
+	 * 
+	 * @param reader
+	 *            geometry reader
+	 */
+	private static void releaseReader(GeometryReader reader) {
+		((ByteArrayReader) reader.reader).clear();
+		threadReader.set(reader);
+	}
+
+	/**
+	 * Maximum number of coordinate values read in a single bulk copy
+	 */
+	static final int BULK_VALUES = 1024;
+
 	/**
 	 * Byte Reader
 	 */
 	private ByteReader reader;
 
+	/**
+	 * Reused coordinate values for bulk reads, created on first use
+	 */
+	private double[] values;
+
+	/**
+	 * Reused traversal skipping coordinates, created on first use
+	 */
+	private Traversal skipTraversal;
+
+	/**
+	 * Reused envelope bounds of scanned geometries, created on first use
+	 */
+	private EnvelopeBounds scanBounds;
+
+	/**
+	 * Reused traversal scanning coordinates into the scan bounds, created on
+	 * first use
+	 */
+	private Traversal scanTraversal;
+
+	/**
+	 * Reused byte reader recording scanned geometries for decoding, created
+	 * on first use
+	 */
+	private ReplayByteReader replayReader;
+
 	/**
 	 * Constructor
 	 * 
@@ -126,7 +277,58 @@ public class GeometryReader {
 	 * @since 2.0.4
 	 */
 	public GeometryReader(byte[] bytes) {
-		this(new ByteReader(bytes));
+		this(new ByteArrayReader(bytes));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            array index of the first geometry byte
+	 * @param length
+	 *            number of geometry bytes
+	 * @since 2.0.5
+	 */
+	public GeometryReader(byte[] bytes, int offset, int length) {
+		this(new ByteArrayReader(bytes, offset, length));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param buffer
+	 *            geometry byte buffer, read from the position to the limit
+	 * @since 2.0.5
+	 */
+	public GeometryReader(ByteBuffer buffer) {
+		this(new ByteBufferReader(buffer));
+	}
+
+	/**
+	 * Constructor to incrementally read geometries from an input stream
+	 * through a small refill buffer. Closing the reader closes the stream.
+	 * 
+	 * @param inputStream
+	 *            input stream
+	 * @since 2.0.5
+	 */
+	public GeometryReader(InputStream inputStream) {
+		this(new StreamByteReader(inputStream));
+	}
+
+	/**
+	 * Constructor to incrementally read geometries from a blocking readable
+	 * byte channel through a small refill buffer. Closing the reader closes
+	 * the channel.
+	 * 
+	 * @param channel
+	 *            readable byte channel
+	 * @since 2.0.5
+	 */
+	public GeometryReader(ReadableByteChannel channel) {
+		this(new StreamByteReader(channel));
 	}
 
 	/**
@@ -150,6 +352,38 @@ public class GeometryReader {
 		return reader;
 	}
 
+	/**
+	 * Reset the reader to read geometry bytes, reusing the reader and its byte
+	 * reader when resettable
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @since 2.0.5
+	 */
+	public void reset(byte[] bytes) {
+		reset(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Reset the reader to read geometry bytes from an array range, reusing the
+	 * reader and its byte reader when resettable
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            array index of the first geometry byte
+	 * @param length
+	 *            number of geometry bytes
+	 * @since 2.0.5
+	 */
+	public void reset(byte[] bytes, int offset, int length) {
+		if (reader instanceof ByteArrayReader) {
+			((ByteArrayReader) reader).reset(bytes, offset, length);
+		} else {
+			reader = new ByteArrayReader(bytes, offset, length);
+		}
+	}
+
 	/**
 	 * Close the byte reader
 	 * 
@@ -220,6 +454,27 @@ public class GeometryReader {
 		return read(filter, null, expectedType);
 	}
 
+	/**
+	 * Read a geometry from the byte reader, discarding the geometry or
+	 * collection members disjoint from the query envelope. Collections without
+	 * intersecting members are disjoint. Each geometry or member is scanned
+	 * before reading and disjoint geometries are never created. Intersecting
+	 * geometries are read after seeking back from seekable byte readers, and
+	 * are otherwise decoded from the scanned values, reading stream bytes
+	 * once. Polygon holes disjoint from the query envelope are pruned.
+	 * 
+	 * @param envelope
+	 *            query envelope
+	 * @return geometry, null if disjoint
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public Geometry readIntersecting(GeometryEnvelope envelope)
+			throws IOException {
+		return read(new GeometryEnvelopeFilter(envelope));
+	}
+
 	/**
 	 * Read a geometry from the byte reader
 	 * 
@@ -245,6 +500,85 @@ public class GeometryReader {
 		// Read the byte order and geometry type
 		GeometryTypeInfo geometryTypeInfo = readGeometryType();
 
+		// Skip geometries rejected by their type before reading them
+		if (filter instanceof GeometryTypeFilter
+				&& !((GeometryTypeFilter) filter).filter(containingType,
+						geometryTypeInfo)) {
+			walk(skipTraversal(), geometryTypeInfo);
+			reader.setByteOrder(originalByteOrder);
+			return null;
+		}
+
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+
+		// Scan the bounds of envelope filtered geometries before reading.
+		// Disjoint geometries are discarded without creating them.
+		// Intersecting geometries are read again after seeking back from
+		// seekable byte readers, and are otherwise decoded from the values
+		// recorded while scanning, so the bytes are read once from streams.
+		// Collections are never scanned, so scanned geometries do not nest.
+		ByteReader scannedReader = null;
+		if (filter instanceof GeometryEnvelopeFilter
+				&& ((GeometryEnvelopeFilter) filter).isFiltered(containingType,
+						geometryType)) {
+			if (!scan(geometryTypeInfo,
+					((GeometryEnvelopeFilter) filter).getEnvelope())) {
+				reader.setByteOrder(originalByteOrder);
+				return null;
+			}
+			if (!(reader instanceof SeekableByteReader)) {
+				scannedReader = reader;
+				reader = replayReader;
+			}
+		}
+
+		Geometry geometry = null;
+
+		try {
+			geometry = readGeometry(filter, geometryTypeInfo);
+		} finally {
+			// Resume reading from the scanned reader after the replay
+			if (scannedReader != null) {
+				replayReader.clear();
+				reader = scannedReader;
+			}
+		}
+
+		if (!filter(filter, containingType, geometry)) {
+			geometry = null;
+		}
+
+		// If there is an expected type, verify the geometry is of that type
+		if (expectedType != null && geometry != null
+				&& !expectedType.isAssignableFrom(geometry.getClass())) {
+			throw new SFException("Unexpected Geometry Type. Expected: "
+					+ expectedType.getSimpleName() + ", Actual: "
+					+ geometry.getClass().getSimpleName());
+		}
+
+		// Restore the byte order
+		reader.setByteOrder(originalByteOrder);
+
+		@SuppressWarnings("unchecked")
+		T result = (T) geometry;
+
+		return result;
+	}
+
+	/**
+	 * Read the geometry of the geometry type info from the byte reader
+	 * 
+	 * @param filter
+	 *            geometry filter
+	 * @param geometryTypeInfo
+	 *            geometry type info
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private Geometry readGeometry(GeometryFilter filter,
+			GeometryTypeInfo geometryTypeInfo) throws IOException {
+
 		GeometryType geometryType = geometryTypeInfo.getGeometryType();
 		boolean hasZ = geometryTypeInfo.hasZ();
 		boolean hasM = geometryTypeInfo.hasM();
@@ -308,25 +642,87 @@ public class GeometryReader {
 					"Geometry Type not supported: " + geometryType);
 		}
 
-		if (!filter(filter, containingType, geometry)) {
-			geometry = null;
+		return geometry;
+	}
+
+	/**
+	 * Scan the envelope bounds of a geometry for reading the geometry when the
+	 * bounds intersect the query envelope. Seekable byte readers are sought
+	 * back to the scanned geometry, and values read from other byte readers
+	 * are recorded for replay.
+	 * 
+	 * @param geometryTypeInfo
+	 *            geometry type info
+	 * @param envelope
+	 *            query envelope
+	 * @return true if intersects and the geometry is ready to read from the
+	 *         sought back reader or the recorded values
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private boolean scan(GeometryTypeInfo geometryTypeInfo,
+			GeometryEnvelope envelope) throws IOException {
+
+		if (reader instanceof SeekableByteReader) {
+			return scanSeekable(geometryTypeInfo, envelope);
 		}
 
-		// If there is an expected type, verify the geometry is of that type
-		if (expectedType != null && geometry != null
-				&& !expectedType.isAssignableFrom(geometry.getClass())) {
-			throw new SFException("Unexpected Geometry Type. Expected: "
-					+ expectedType.getSimpleName() + ", Actual: "
-					+ geometry.getClass().getSimpleName());
+		if (replayReader == null) {
+			replayReader = new ReplayByteReader();
 		}
+		Traversal traversal = scanTraversal();
+		scanBounds.reset();
 
-		// Restore the byte order
-		reader.setByteOrder(originalByteOrder);
+		ByteReader scannedReader = reader;
+		replayReader.record(scannedReader);
+		reader = replayReader;
 
-		@SuppressWarnings("unchecked")
-		T result = (T) geometry;
+		boolean intersects = false;
+		try {
+			walk(traversal, geometryTypeInfo);
+			intersects = scanBounds.intersects(envelope);
+		} finally {
+			reader = scannedReader;
+			if (intersects) {
+				replayReader.replay();
+			} else {
+				replayReader.clear();
+			}
+		}
 
-		return result;
+		return intersects;
+	}
+
+	/**
+	 * Scan the envelope bounds of a geometry from a seekable byte reader,
+	 * seeking back to the scanned geometry when the bounds intersect the
+	 * query envelope
+	 * 
+	 * @param geometryTypeInfo
+	 *            geometry type info
+	 * @param envelope
+	 *            query envelope
+	 * @return true if intersects and the reader is sought back
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private boolean scanSeekable(GeometryTypeInfo geometryTypeInfo,
+			GeometryEnvelope envelope) throws IOException {
+
+		Traversal traversal = scanTraversal();
+		scanBounds.reset();
+
+		ByteOrder byteOrder = reader.getByteOrder();
+		int nextByte = reader.getNextByte();
+
+		walk(traversal, geometryTypeInfo);
+		boolean intersects = scanBounds.intersects(envelope);
+		if (intersects) {
+			((SeekableByteReader) reader).seek(nextByte);
+			reader.setByteOrder(byteOrder);
+		}
+
+		return intersects;
 	}
 
 	/**
@@ -348,30 +744,8 @@ public class GeometryReader {
 		// Read the geometry type unsigned integer
 		long unsignedGeometryTypeCode = reader.readUnsignedInt();
 
-		// Check for 2.5D geometry types
-		boolean hasZ = false;
-		if (unsignedGeometryTypeCode > WKB25D) {
-			hasZ = true;
-			unsignedGeometryTypeCode -= WKB25D;
-		}
-
-		int geometryTypeCode = (int) unsignedGeometryTypeCode;
-
-		// Determine the geometry type
-		GeometryType geometryType = GeometryCodes
-				.getGeometryType(geometryTypeCode);
-
-		// Determine if the geometry has a z (3d) or m (linear referencing
-		// system) value
-		if (!hasZ) {
-			hasZ = GeometryCodes.hasZ(geometryTypeCode);
-		}
-		boolean hasM = GeometryCodes.hasM(geometryTypeCode);
-
-		GeometryTypeInfo geometryInfo = new GeometryTypeInfo(geometryTypeCode,
-				geometryType, hasZ, hasM);
-
-		return geometryInfo;
+		// Look up the shared geometry type, including 2.5D geometry types
+		return GeometryCodes.getGeometryTypeInfo(unsignedGeometryTypeCode);
 	}
 
 	/**
@@ -445,12 +819,8 @@ public class GeometryReader {
 
 		int numPoints = reader.readInt();
 
-		for (int i = 0; i < numPoints; i++) {
-			Point point = readPoint(hasZ, hasM);
-			if (filter(filter, GeometryType.LINESTRING, point)) {
-				lineString.addPoint(point);
-			}
-		}
+		readPoints(lineString, filter, GeometryType.LINESTRING, numPoints,
+				hasZ, hasM);
 
 		return lineString;
 	}
@@ -495,7 +865,8 @@ public class GeometryReader {
 
 		for (int i = 0; i < numRings; i++) {
 			LineString ring = readLineString(filter, hasZ, hasM);
-			if (filter(filter, GeometryType.POLYGON, ring)) {
+			if (filter(filter, GeometryType.POLYGON, ring)
+					&& !isDisjointHole(filter, i, ring)) {
 				polygon.addRing(ring);
 			}
 		}
@@ -743,44 +1114,229 @@ public class GeometryReader {
 
 		int numPoints = reader.readInt();
 
-		for (int i = 0; i < numPoints; i++) {
-			Point point = readPoint(hasZ, hasM);
-			if (filter(filter, GeometryType.CIRCULARSTRING, point)) {
-				circularString.addPoint(point);
-			}
-		}
+		readPoints(circularString, filter, GeometryType.CIRCULARSTRING,
+				numPoints, hasZ, hasM);
 
 		return circularString;
 	}
 
 	/**
-	 * Read a Compound Curve
+	 * Read the points of a line string or circular string with a loop
+	 * specialized once for the dimensions
 	 * 
+	 * @param lineString
+	 *            line string to add the points to
+	 * @param filter
+	 *            geometry filter
+	 * @param containingType
+	 *            line string geometry type
+	 * @param numPoints
+	 *            number of points
 	 * @param hasZ
 	 *            has z flag
 	 * @param hasM
 	 *            has m flag
-	 * @return compound curve
 	 * @throws IOException
 	 *             upon failure to read
-	 * @since 2.0.4
 	 */
-	public CompoundCurve readCompoundCurve(boolean hasZ, boolean hasM)
-			throws IOException {
-		GeometryFilter filter = null;
-		return readCompoundCurve(filter, hasZ, hasM);
+	private void readPoints(LineString lineString, GeometryFilter filter,
+			GeometryType containingType, int numPoints, boolean hasZ,
+			boolean hasM) throws IOException {
+
+		if (values == null) {
+			values = new double[BULK_VALUES];
+		}
+
+		if (hasZ && hasM) {
+			readPointsXYZM(lineString, filter, containingType, numPoints);
+		} else if (hasZ) {
+			readPointsXYZ(lineString, filter, containingType, numPoints);
+		} else if (hasM) {
+			readPointsXYM(lineString, filter, containingType, numPoints);
+		} else {
+			readPointsXY(lineString, filter, containingType, numPoints);
+		}
+
 	}
 
 	/**
-	 * Read a Compound Curve
+	 * Read a chunk of coordinate values into the reused values, copied in
+	 * bulk when supported by the byte reader
 	 * 
-	 * @param filter
-	 *            geometry filter
-	 * @param hasZ
-	 *            has z flag
-	 * @param hasM
-	 *            has m flag
-	 * @return compound curve
+	 * @param length
+	 *            number of values
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void readValues(int length) throws IOException {
+		if (reader instanceof BulkByteReader) {
+			((BulkByteReader) reader).readDoubles(values, 0, length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				values[i] = reader.readDouble();
+			}
+		}
+	}
+
+	/**
+	 * Read XY points in chunks of coordinate values
+	 * 
+	 * @param lineString
+	 *            line string to add the points to
+	 * @param filter
+	 *            geometry filter
+	 * @param containingType
+	 *            line string geometry type
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void readPointsXY(LineString lineString, GeometryFilter filter,
+			GeometryType containingType, int numPoints) throws IOException {
+		double[] values = this.values;
+		int chunkPoints = BULK_VALUES / 2;
+		for (int start = 0; start < numPoints; start += chunkPoints) {
+			int count = Math.min(chunkPoints, numPoints - start);
+			readValues(count * 2);
+			for (int i = 0; i < count; i++) {
+				int index = i << 1;
+				Point point = new Point(values[index], values[index + 1]);
+				if (filter(filter, containingType, point)) {
+					lineString.addPoint(point);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read XYZ points in chunks of coordinate values
+	 * 
+	 * @param lineString
+	 *            line string to add the points to
+	 * @param filter
+	 *            geometry filter
+	 * @param containingType
+	 *            line string geometry type
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void readPointsXYZ(LineString lineString, GeometryFilter filter,
+			GeometryType containingType, int numPoints) throws IOException {
+		double[] values = this.values;
+		int chunkPoints = BULK_VALUES / 3;
+		for (int start = 0; start < numPoints; start += chunkPoints) {
+			int count = Math.min(chunkPoints, numPoints - start);
+			readValues(count * 3);
+			for (int i = 0; i < count; i++) {
+				int index = i * 3;
+				Point point = new Point(true, false, values[index],
+						values[index + 1]);
+				point.setZ(values[index + 2]);
+				if (filter(filter, containingType, point)) {
+					lineString.addPoint(point);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read XYM points in chunks of coordinate values
+	 * 
+	 * @param lineString
+	 *            line string to add the points to
+	 * @param filter
+	 *            geometry filter
+	 * @param containingType
+	 *            line string geometry type
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void readPointsXYM(LineString lineString, GeometryFilter filter,
+			GeometryType containingType, int numPoints) throws IOException {
+		double[] values = this.values;
+		int chunkPoints = BULK_VALUES / 3;
+		for (int start = 0; start < numPoints; start += chunkPoints) {
+			int count = Math.min(chunkPoints, numPoints - start);
+			readValues(count * 3);
+			for (int i = 0; i < count; i++) {
+				int index = i * 3;
+				Point point = new Point(false, true, values[index],
+						values[index + 1]);
+				point.setM(values[index + 2]);
+				if (filter(filter, containingType, point)) {
+					lineString.addPoint(point);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read XYZM points in chunks of coordinate values
+	 * 
+	 * @param lineString
+	 *            line string to add the points to
+	 * @param filter
+	 *            geometry filter
+	 * @param containingType
+	 *            line string geometry type
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void readPointsXYZM(LineString lineString, GeometryFilter filter,
+			GeometryType containingType, int numPoints) throws IOException {
+		double[] values = this.values;
+		int chunkPoints = BULK_VALUES / 4;
+		for (int start = 0; start < numPoints; start += chunkPoints) {
+			int count = Math.min(chunkPoints, numPoints - start);
+			readValues(count * 4);
+			for (int i = 0; i < count; i++) {
+				int index = i << 2;
+				Point point = new Point(true, true, values[index],
+						values[index + 1]);
+				point.setZ(values[index + 2]);
+				point.setM(values[index + 3]);
+				if (filter(filter, containingType, point)) {
+					lineString.addPoint(point);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read a Compound Curve
+	 * 
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @return compound curve
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.4
+	 */
+	public CompoundCurve readCompoundCurve(boolean hasZ, boolean hasM)
+			throws IOException {
+		GeometryFilter filter = null;
+		return readCompoundCurve(filter, hasZ, hasM);
+	}
+
+	/**
+	 * Read a Compound Curve
+	 * 
+	 * @param filter
+	 *            geometry filter
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @return compound curve
 	 * @throws IOException
 	 *             upon failure to read
 	 * @since 2.0.4
@@ -844,7 +1400,7 @@ public class GeometryReader {
 
 		for (int i = 0; i < numRings; i++) {
 			Curve ring = read(filter, GeometryType.CURVEPOLYGON, Curve.class);
-			if (ring != null) {
+			if (ring != null && !isDisjointHole(filter, i, ring)) {
 				curvePolygon.addRing(ring);
 			}
 		}
@@ -951,52 +1507,611 @@ public class GeometryReader {
 	}
 
 	/**
-	 * Read a Triangle
+	 * Read a Triangle
+	 * 
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @return triangle
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.4
+	 */
+	public Triangle readTriangle(boolean hasZ, boolean hasM)
+			throws IOException {
+		GeometryFilter filter = null;
+		return readTriangle(filter, hasZ, hasM);
+	}
+
+	/**
+	 * Read a Triangle
+	 * 
+	 * @param filter
+	 *            geometry filter
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @return triangle
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.4
+	 */
+	public Triangle readTriangle(GeometryFilter filter, boolean hasZ,
+			boolean hasM) throws IOException {
+
+		Triangle triangle = new Triangle(hasZ, hasM);
+
+		int numRings = reader.readInt();
+
+		for (int i = 0; i < numRings; i++) {
+			LineString ring = readLineString(filter, hasZ, hasM);
+			if (filter(filter, GeometryType.TRIANGLE, ring)) {
+				triangle.addRing(ring);
+			}
+		}
+
+		return triangle;
+	}
+
+	/**
+	 * Read a geometry from the byte reader into packed primitive coordinates,
+	 * without creating geometry objects
+	 * 
+	 * @return packed geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public PackedGeometry readPacked() throws IOException {
+
+		ByteOrder originalByteOrder = reader.getByteOrder();
+
+		PackedGeometry.Builder builder = null;
+		try {
+
+			// Read the byte order and geometry type
+			GeometryTypeInfo geometryTypeInfo = readGeometryType();
+
+			final PackedGeometry.Builder packedBuilder = new PackedGeometry.Builder(
+					geometryTypeInfo.getGeometryType(), geometryTypeInfo.hasZ(),
+					geometryTypeInfo.hasM());
+			walk(new Traversal() {
+
+				@Override
+				void beginGeometry(GeometryType geometryType, boolean hasZ,
+						boolean hasM, int count) {
+					packedBuilder.addNode(geometryType, count);
+				}
+
+				@Override
+				void points(int numPoints, boolean hasZ, boolean hasM)
+						throws IOException {
+					readPackedPoints(packedBuilder, numPoints, hasZ, hasM);
+				}
+
+			}, geometryTypeInfo);
+			builder = packedBuilder;
+
+		} finally {
+			// Restore the byte order
+			reader.setByteOrder(originalByteOrder);
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Read a part of points into the packed geometry builder
+	 * 
+	 * @param builder
+	 *            packed geometry builder
+	 * @param numPoints
+	 *            number of points
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void readPackedPoints(PackedGeometry.Builder builder,
+			int numPoints, boolean hasZ, boolean hasM) throws IOException {
+
+		builder.addPart();
+
+		if (reader instanceof BulkByteReader
+				&& builder.hasDimensions(hasZ, hasM)) {
+
+			// Copy the coordinates directly into the packed coordinates
+			int chunkPoints = BULK_VALUES / PackedGeometry.dimension(hasZ,
+					hasM);
+			for (int start = 0; start < numPoints; start += chunkPoints) {
+				builder.addPoints((BulkByteReader) reader,
+						Math.min(chunkPoints, numPoints - start));
+			}
+
+		} else {
+
+			for (int i = 0; i < numPoints; i++) {
+				double x = reader.readDouble();
+				double y = reader.readDouble();
+				double z = hasZ ? reader.readDouble() : Double.NaN;
+				double m = hasM ? reader.readDouble() : Double.NaN;
+				builder.addPoint(x, y, z, m);
+			}
+
+		}
+
+	}
+
+	/**
+	 * Parse a geometry from the byte reader, pushing the geometry structure
+	 * and coordinates to the handler without creating geometry objects
+	 * 
+	 * @param handler
+	 *            geometry handler
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public void parse(final GeometryHandler handler) throws IOException {
+		walk(new Traversal() {
+
+			@Override
+			void beginGeometry(GeometryType geometryType, boolean hasZ,
+					boolean hasM, int count) {
+				handler.beginGeometry(geometryType, hasZ, hasM, count);
+			}
+
+			@Override
+			void points(int numPoints, boolean hasZ, boolean hasM)
+					throws IOException {
+				parsePoints(handler, numPoints, hasZ, hasM);
+			}
+
+			@Override
+			void endGeometry(GeometryType geometryType) {
+				handler.endGeometry(geometryType);
+			}
+
+		});
+	}
+
+	/**
+	 * Parse points, pushing the coordinates to the handler
+	 * 
+	 * @param handler
+	 *            geometry handler
+	 * @param numPoints
+	 *            number of points
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void parsePoints(GeometryHandler handler, int numPoints,
+			boolean hasZ, boolean hasM) throws IOException {
+		for (int i = 0; i < numPoints; i++) {
+			double x = reader.readDouble();
+			double y = reader.readDouble();
+			double z = hasZ ? reader.readDouble() : Double.NaN;
+			double m = hasM ? reader.readDouble() : Double.NaN;
+			handler.coordinate(x, y, z, m);
+		}
+	}
+
+	/**
+	 * Read the envelope of a geometry from the byte reader by scanning the
+	 * coordinates, without creating geometry objects
+	 * 
+	 * @return geometry envelope, null for empty geometries
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public GeometryEnvelope readEnvelope() throws IOException {
+		Traversal traversal = scanTraversal();
+		scanBounds.reset();
+		walk(traversal);
+		return scanBounds.toEnvelope();
+	}
+
+	/**
+	 * Get the traversal scanning the coordinates, expanding the scan bounds,
+	 * created on first use
+	 * 
+	 * @return scan traversal
+	 */
+	private Traversal scanTraversal() {
+		if (scanTraversal == null) {
+			scanBounds = new EnvelopeBounds();
+			scanTraversal = new Traversal() {
+
+				@Override
+				void points(int numPoints, boolean hasZ, boolean hasM)
+						throws IOException {
+					scanPoints(scanBounds, numPoints, hasZ, hasM);
+				}
+
+			};
+		}
+		return scanTraversal;
+	}
+
+	/**
+	 * Scan points, expanding the envelope bounds
+	 * 
+	 * @param bounds
+	 *            envelope bounds
+	 * @param numPoints
+	 *            number of points
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void scanPoints(EnvelopeBounds bounds, int numPoints, boolean hasZ,
+			boolean hasM) throws IOException {
+		if (reader instanceof BulkByteReader) {
+
+			if (values == null) {
+				values = new double[BULK_VALUES];
+			}
+			int dimension = PackedGeometry.dimension(hasZ, hasM);
+			int chunkPoints = BULK_VALUES / dimension;
+
+			for (int start = 0; start < numPoints; start += chunkPoints) {
+				int count = Math.min(chunkPoints, numPoints - start);
+				((BulkByteReader) reader).readDoubles(values, 0,
+						count * dimension);
+				for (int index = 0; index < count
+						* dimension; index += dimension) {
+					bounds.expandXY(values[index], values[index + 1]);
+					if (hasZ) {
+						bounds.expandZ(values[index + 2]);
+					}
+					if (hasM) {
+						bounds.expandM(values[index + dimension - 1]);
+					}
+				}
+			}
+
+		} else {
+			for (int i = 0; i < numPoints; i++) {
+				bounds.expandXY(reader.readDouble(), reader.readDouble());
+				if (hasZ) {
+					bounds.expandZ(reader.readDouble());
+				}
+				if (hasM) {
+					bounds.expandM(reader.readDouble());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read a single member of a multi geometry, geometry collection, compound
+	 * curve, curve polygon, polyhedral surface, or TIN from the byte reader.
+	 * Earlier members are skipped without decoding them. The byte reader is
+	 * left after the read member.
+	 * 
+	 * @param index
+	 *            member index
+	 * @return member geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public Geometry readMember(int index) throws IOException {
+		return readMember(index, Geometry.class);
+	}
+
+	/**
+	 * Read a single member of a multi geometry, geometry collection, compound
+	 * curve, curve polygon, polyhedral surface, or TIN from the byte reader.
+	 * Earlier members are skipped without decoding them. The byte reader is
+	 * left after the read member.
+	 * 
+	 * @param index
+	 *            member index
+	 * @param expectedType
+	 *            expected member type
+	 * @param <T>
+	 *            geometry type
+	 * @return member geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public <T extends Geometry> T readMember(int index, Class<T> expectedType)
+			throws IOException {
+
+		ByteOrder originalByteOrder = reader.getByteOrder();
+
+		T member = null;
+		try {
+
+			// Read the byte order and geometry type
+			GeometryTypeInfo geometryTypeInfo = readGeometryType();
+
+			GeometryType geometryType = geometryTypeInfo.getGeometryType();
+			if (!hasMembers(geometryType)) {
+				throw new SFException("Geometry Type of "
+						+ geometryType.name()
+						+ " does not contain geometry members");
+			}
+
+			int numGeometries = readCount(geometryType);
+			if (index < 0 || index >= numGeometries) {
+				throw new IndexOutOfBoundsException("Member index: " + index
+						+ ", Members: " + numGeometries);
+			}
+
+			for (int i = 0; i < index; i++) {
+				skip();
+			}
+			member = read(null, geometryType, expectedType);
+
+		} finally {
+			// Restore the byte order, including upon failure
+			reader.setByteOrder(originalByteOrder);
+		}
+
+		return member;
+	}
+
+	/**
+	 * Skip past a geometry in the byte reader without decoding the
+	 * coordinates. The encoded length is measured from the geometry headers
+	 * and element counts, and coordinates are skipped arithmetically.
+	 * 
+	 * @return number of bytes in the skipped geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public long skip() throws IOException {
+		return walk(skipTraversal());
+	}
+
+	/**
+	 * Get the traversal skipping the coordinates, created on first use
+	 * 
+	 * @return skip traversal
+	 */
+	private Traversal skipTraversal() {
+		if (skipTraversal == null) {
+			skipTraversal = new Traversal() {
+
+				@Override
+				void points(int numPoints, boolean hasZ, boolean hasM)
+						throws IOException {
+					skipBytes(numPoints * 8L
+							* PackedGeometry.dimension(hasZ, hasM));
+				}
+
+			};
+		}
+		return skipTraversal;
+	}
+
+	/**
+	 * Walk a geometry from the byte reader, restoring the byte order
+	 * 
+	 * @param traversal
+	 *            geometry traversal
+	 * @return number of bytes in the walked geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private long walk(Traversal traversal) throws IOException {
+
+		ByteOrder originalByteOrder = reader.getByteOrder();
+
+		long length = 0;
+		try {
+
+			// Read the byte order and geometry type
+			GeometryTypeInfo geometryTypeInfo = readGeometryType();
+
+			length = 5 + walk(traversal, geometryTypeInfo);
+
+		} finally {
+			// Restore the byte order
+			reader.setByteOrder(originalByteOrder);
+		}
+
+		return length;
+	}
+
+	/**
+	 * Walk the geometry following the geometry type info. This is the single
+	 * traversal of the well-known binary structure shared by skipping,
+	 * envelope scanning, packed reading, and event parsing.
+	 * 
+	 * @param traversal
+	 *            geometry traversal
+	 * @param geometryTypeInfo
+	 *            geometry type info
+	 * @return number of bytes walked after the geometry type
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private long walk(Traversal traversal, GeometryTypeInfo geometryTypeInfo)
+			throws IOException {
+
+		long length = 0;
+
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		boolean hasZ = geometryTypeInfo.hasZ();
+		boolean hasM = geometryTypeInfo.hasM();
+
+		switch (geometryType) {
+
+		case GEOMETRY:
+		case CURVE:
+		case SURFACE:
+			throw new SFException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		case POINT:
+			length += walkPoints(traversal, geometryType, 1, hasZ, hasM);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			length += 4 + walkPoints(traversal, geometryType,
+					readCount(geometryType), hasZ, hasM);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = readCount(geometryType);
+			traversal.beginGeometry(geometryType, hasZ, hasM, numRings);
+			length += 4;
+			for (int i = 0; i < numRings; i++) {
+				length += 4 + walkPoints(traversal, GeometryType.LINESTRING,
+						readCount(geometryType), hasZ, hasM);
+			}
+			traversal.endGeometry(geometryType);
+			break;
+		default:
+			if (!hasMembers(geometryType)) {
+				throw new SFException(
+						"Geometry Type not supported: " + geometryType);
+			}
+			int numGeometries = readCount(geometryType);
+			traversal.beginGeometry(geometryType, hasZ, hasM, numGeometries);
+			length += 4;
+			for (int i = 0; i < numGeometries; i++) {
+				length += walk(traversal);
+			}
+			traversal.endGeometry(geometryType);
+		}
+
+		return length;
+	}
+
+	/**
+	 * Walk a point sequence geometry or ring
 	 * 
+	 * @param traversal
+	 *            geometry traversal
+	 * @param geometryType
+	 *            geometry type
+	 * @param numPoints
+	 *            number of points
 	 * @param hasZ
 	 *            has z flag
 	 * @param hasM
 	 *            has m flag
-	 * @return triangle
+	 * @return number of coordinate bytes
 	 * @throws IOException
 	 *             upon failure to read
-	 * @since 2.0.4
 	 */
-	public Triangle readTriangle(boolean hasZ, boolean hasM)
-			throws IOException {
-		GeometryFilter filter = null;
-		return readTriangle(filter, hasZ, hasM);
+	private long walkPoints(Traversal traversal, GeometryType geometryType,
+			int numPoints, boolean hasZ, boolean hasM) throws IOException {
+		traversal.beginGeometry(geometryType, hasZ, hasM, numPoints);
+		traversal.points(numPoints, hasZ, hasM);
+		traversal.endGeometry(geometryType);
+		return numPoints * 8L * PackedGeometry.dimension(hasZ, hasM);
 	}
 
 	/**
-	 * Read a Triangle
+	 * Traversal of the geometry structure walked from the byte reader. Each
+	 * geometry begins, visits its points or nested geometries, and ends.
+	 * Polygon and triangle rings are line string point sequences.
+	 */
+	private abstract class Traversal {
+
+		/**
+		 * Begin a geometry
+		 * 
+		 * @param geometryType
+		 *            geometry type
+		 * @param hasZ
+		 *            has z flag
+		 * @param hasM
+		 *            has m flag
+		 * @param count
+		 *            number of points for points, line strings, circular
+		 *            strings, and rings, or the number of nested geometries
+		 */
+		void beginGeometry(GeometryType geometryType, boolean hasZ,
+				boolean hasM, int count) {
+		}
+
+		/**
+		 * Consume the coordinates of the current point sequence from the byte
+		 * reader
+		 * 
+		 * @param numPoints
+		 *            number of points
+		 * @param hasZ
+		 *            has z flag
+		 * @param hasM
+		 *            has m flag
+		 * @throws IOException
+		 *             upon failure to read
+		 */
+		abstract void points(int numPoints, boolean hasZ, boolean hasM)
+				throws IOException;
+
+		/**
+		 * End the current geometry
+		 * 
+		 * @param geometryType
+		 *            geometry type
+		 */
+		void endGeometry(GeometryType geometryType) {
+		}
+
+	}
+
+	/**
+	 * Read an element count
 	 * 
-	 * @param filter
-	 *            geometry filter
-	 * @param hasZ
-	 *            has z flag
-	 * @param hasM
-	 *            has m flag
-	 * @return triangle
+	 * @param geometryType
+	 *            geometry type containing the elements
+	 * @return element count
 	 * @throws IOException
 	 *             upon failure to read
-	 * @since 2.0.4
 	 */
-	public Triangle readTriangle(GeometryFilter filter, boolean hasZ,
-			boolean hasM) throws IOException {
-
-		Triangle triangle = new Triangle(hasZ, hasM);
-
-		int numRings = reader.readInt();
+	int readCount(GeometryType geometryType) throws IOException {
+		int count = reader.readInt();
+		if (count < 0) {
+			throw new SFException("Invalid " + geometryType.name()
+					+ " element count: " + count);
+		}
+		return count;
+	}
 
-		for (int i = 0; i < numRings; i++) {
-			LineString ring = readLineString(filter, hasZ, hasM);
-			if (filter(filter, GeometryType.TRIANGLE, ring)) {
-				triangle.addRing(ring);
+	/**
+	 * Skip bytes in the byte reader, reading and discarding them when the
+	 * reader is not skippable
+	 * 
+	 * @param num
+	 *            number of bytes
+	 * @return number of bytes skipped
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private long skipBytes(long num) throws IOException {
+		if (reader instanceof SkippableByteReader) {
+			((SkippableByteReader) reader).skip(num);
+		} else {
+			long remaining = num;
+			for (; remaining >= 8; remaining -= 8) {
+				reader.readDouble();
+			}
+			for (; remaining > 0; remaining--) {
+				reader.readByte();
 			}
 		}
-
-		return triangle;
+		return num;
 	}
 
 	/**
@@ -1093,6 +2208,315 @@ public class GeometryReader {
 		return geometryReader.read(filter, containingType, expectedType);
 	}
 
+	/**
+	 * Measure the encoded length of the geometry at the start of well-known
+	 * bytes without decoding the coordinates
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @return number of bytes in the geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static int measureLength(byte[] bytes) throws IOException {
+		return measureLength(bytes, 0);
+	}
+
+	/**
+	 * Measure the encoded length of the geometry starting at the array index
+	 * of well-known bytes without decoding the coordinates, such as to locate
+	 * consecutive geometries
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param offset
+	 *            array index of the geometry
+	 * @return number of bytes in the geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static int measureLength(byte[] bytes, int offset)
+			throws IOException {
+		long length = 0;
+		GeometryReader reader = borrowReader(bytes);
+		try {
+			reader.reset(bytes, offset, bytes.length - offset);
+			length = reader.skip();
+		} finally {
+			releaseReader(reader);
+		}
+		return (int) length;
+	}
+
+	/**
+	 * Skip past a geometry in the byte reader without decoding the
+	 * coordinates
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @return number of bytes in the skipped geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static long skip(ByteReader reader) throws IOException {
+		GeometryReader geometryReader = new GeometryReader(reader);
+		return geometryReader.skip();
+	}
+
+	/**
+	 * Parse a geometry from well-known bytes, pushing the geometry structure
+	 * and coordinates to the handler without creating geometry objects
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param handler
+	 *            geometry handler
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static void parseGeometry(byte[] bytes, GeometryHandler handler)
+			throws IOException {
+		GeometryReader reader = borrowReader(bytes);
+		try {
+			reader.parse(handler);
+		} finally {
+			releaseReader(reader);
+		}
+	}
+
+	/**
+	 * Parse a geometry from the byte reader, pushing the geometry structure
+	 * and coordinates to the handler without creating geometry objects
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param handler
+	 *            geometry handler
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static void parseGeometry(ByteReader reader,
+			GeometryHandler handler) throws IOException {
+		GeometryReader geometryReader = new GeometryReader(reader);
+		geometryReader.parse(handler);
+	}
+
+	/**
+	 * Read a lazy view of a geometry from well-known bytes, decoding members
+	 * on first access
+	 * 
+	 * @param bytes
+	 *            geometry bytes, referenced by the view
+	 * @return lazy geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static LazyGeometry readLazyGeometry(byte[] bytes)
+			throws IOException {
+		return readLazyGeometry(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Read a lazy view of a geometry from an array range of well-known bytes,
+	 * decoding members on first access
+	 * 
+	 * @param bytes
+	 *            bytes, referenced by the view
+	 * @param offset
+	 *            array index of the first geometry byte
+	 * @param length
+	 *            number of bytes
+	 * @return lazy geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static LazyGeometry readLazyGeometry(byte[] bytes, int offset,
+			int length) throws IOException {
+		return new LazyGeometry(bytes, offset, length);
+	}
+
+	/**
+	 * Read a single member of a collection geometry from well-known bytes,
+	 * skipping earlier members without decoding them
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param index
+	 *            member index
+	 * @return member geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static Geometry readMember(byte[] bytes, int index)
+			throws IOException {
+		return readMember(bytes, index, Geometry.class);
+	}
+
+	/**
+	 * Read a single member of a collection geometry from well-known bytes,
+	 * skipping earlier members without decoding them
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param index
+	 *            member index
+	 * @param expectedType
+	 *            expected member type
+	 * @param <T>
+	 *            geometry type
+	 * @return member geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static <T extends Geometry> T readMember(byte[] bytes, int index,
+			Class<T> expectedType) throws IOException {
+		T member = null;
+		GeometryReader reader = borrowReader(bytes);
+		try {
+			member = reader.readMember(index, expectedType);
+		} finally {
+			releaseReader(reader);
+		}
+		return member;
+	}
+
+	/**
+	 * Read a single member of a collection geometry from the byte reader,
+	 * skipping earlier members without decoding them
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param index
+	 *            member index
+	 * @return member geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static Geometry readMember(ByteReader reader, int index)
+			throws IOException {
+		GeometryReader geometryReader = new GeometryReader(reader);
+		return geometryReader.readMember(index);
+	}
+
+	/**
+	 * Stream the concatenated geometries from the buffer position to the
+	 * buffer limit, splitting on geometry boundaries for parallel streams
+	 * 
+	 * @param buffer
+	 *            byte buffer of concatenated geometries
+	 * @return geometry stream
+	 * @since 2.0.5
+	 */
+	public static Stream<Geometry> stream(ByteBuffer buffer) {
+		return StreamSupport.stream(new GeometrySpliterator(buffer), false);
+	}
+
+	/**
+	 * Stream the length prefixed geometry records from the buffer position to
+	 * the buffer limit, splitting on record boundaries for parallel streams
+	 * 
+	 * @param buffer
+	 *            byte buffer of 4 byte unsigned record lengths each followed
+	 *            by well-known bytes
+	 * @param lengthByteOrder
+	 *            byte order of the record length prefixes
+	 * @return geometry stream
+	 * @since 2.0.5
+	 */
+	public static Stream<Geometry> streamRecords(ByteBuffer buffer,
+			ByteOrder lengthByteOrder) {
+		return StreamSupport.stream(
+				new GeometrySpliterator(buffer, lengthByteOrder), false);
+	}
+
+	/**
+	 * Read the envelope of a geometry from well-known bytes, without creating
+	 * geometry objects
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @return geometry envelope, null for empty geometries
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static GeometryEnvelope readEnvelope(byte[] bytes)
+			throws IOException {
+		GeometryEnvelope envelope = null;
+		GeometryReader reader = borrowReader(bytes);
+		try {
+			envelope = reader.readEnvelope();
+		} finally {
+			releaseReader(reader);
+		}
+		return envelope;
+	}
+
+	/**
+	 * Read the envelope of a geometry from the byte reader, without creating
+	 * geometry objects
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @return geometry envelope, null for empty geometries
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static GeometryEnvelope readEnvelope(ByteReader reader)
+			throws IOException {
+		GeometryReader geometryReader = new GeometryReader(reader);
+		return geometryReader.readEnvelope();
+	}
+
+	/**
+	 * Read a geometry from well-known bytes into packed primitive coordinates
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @return packed geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static PackedGeometry readPackedGeometry(byte[] bytes)
+			throws IOException {
+		PackedGeometry geometry = null;
+		GeometryReader reader = borrowReader(bytes);
+		try {
+			geometry = reader.readPacked();
+		} finally {
+			releaseReader(reader);
+		}
+		return geometry;
+	}
+
+	/**
+	 * Read a geometry from the byte reader into packed primitive coordinates
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @return packed geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.0.5
+	 */
+	public static PackedGeometry readPackedGeometry(ByteReader reader)
+			throws IOException {
+		GeometryReader geometryReader = new GeometryReader(reader);
+		return geometryReader.readPacked();
+	}
+
 	/**
 	 * Read the geometry type info
 	 * 
@@ -1629,6 +3053,92 @@ public class GeometryReader {
 		return geometryReader.readTriangle(filter, hasZ, hasM);
 	}
 
+	/**
+	 * Check if the geometry type contains geometry members with their own
+	 * geometry headers
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @return true if has geometry members
+	 */
+	static boolean hasMembers(GeometryType geometryType) {
+		return getMemberType(geometryType) != null;
+	}
+
+	/**
+	 * Get the member geometry class of a geometry type containing geometry
+	 * members with their own geometry headers
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @return member geometry class, null if the geometry type does not
+	 *         contain geometry members
+	 */
+	static Class<? extends Geometry> getMemberType(
+			GeometryType geometryType) {
+		Class<? extends Geometry> memberType = null;
+		switch (geometryType) {
+		case MULTIPOINT:
+			memberType = Point.class;
+			break;
+		case MULTILINESTRING:
+		case COMPOUNDCURVE:
+			memberType = LineString.class;
+			break;
+		case MULTIPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			memberType = Polygon.class;
+			break;
+		case CURVEPOLYGON:
+			memberType = Curve.class;
+			break;
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+			memberType = Geometry.class;
+			break;
+		default:
+		}
+		return memberType;
+	}
+
+	/**
+	 * Check if the geometry type is a multi geometry or geometry collection
+	 * whose members are independent geometries
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @return true if a multi geometry or geometry collection
+	 */
+	static boolean isCollection(GeometryType geometryType) {
+		return getMemberType(geometryType) != null
+				&& geometryType != GeometryType.COMPOUNDCURVE
+				&& geometryType != GeometryType.CURVEPOLYGON
+				&& geometryType != GeometryType.POLYHEDRALSURFACE
+				&& geometryType != GeometryType.TIN;
+	}
+
+	/**
+	 * Check if a polygon ring is an interior ring disjoint from the query
+	 * envelope of an envelope filter. Disjoint holes do not change the
+	 * intersection of the polygon with the query envelope and are pruned.
+	 * 
+	 * @param filter
+	 *            geometry filter or null
+	 * @param index
+	 *            ring index, 0 for the exterior ring
+	 * @param ring
+	 *            polygon ring
+	 * @return true if a disjoint hole
+	 */
+	static boolean isDisjointHole(GeometryFilter filter, int index,
+			Curve ring) {
+		return index > 0 && filter instanceof GeometryEnvelopeFilter
+				&& !((GeometryEnvelopeFilter) filter)
+						.intersects(GeometryEnvelopeBuilder.buildEnvelope(ring));
+	}
+
 	/**
 	 * Filter the geometry
 	 * 
@@ -0,0 +1,679 @@
+package mil.nga.sf.wkb;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * Memory mapped reader of a file of length prefixed Well Known Binary
+ * records. Each record is a 4 byte unsigned record length followed by that
+ * many bytes of well-known binary. Files larger than a single mapping are
+ * mapped as multiple segments split on record boundaries. Geometries are
+ * decoded in place from the mapped segments with sequential iteration and
+ * random access by record index. Segments are mapped as they are reached,
+ * and the records of a segment are indexed on the first random access into
+ * the segment, keeping the offset of one record per checkpoint interval.
+ * Iteration walks the records without indexing them. Records may be read
+ * concurrently.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometryRecordReader implements Iterable<Geometry>, Closeable {
+
+	/**
+	 * Number of bytes in a record length prefix
+	 */
+	public static final int RECORD_LENGTH_BYTES = 4;
+
+	/**
+	 * Default maximum number of bytes in a mapped segment
+	 */
+	public static final int DEFAULT_MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+	/**
+	 * Number of records between indexed record offsets
+	 */
+	public static final int CHECKPOINT_INTERVAL = 64;
+
+	/**
+	 * File channel, open until closed
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * File size
+	 */
+	private final long fileSize;
+
+	/**
+	 * Byte order of the record length prefixes
+	 */
+	private final ByteOrder lengthByteOrder;
+
+	/**
+	 * Maximum number of bytes in a mapped segment
+	 */
+	private final int maxSegmentSize;
+
+	/**
+	 * Mapped file segments, in file order
+	 */
+	private final List<Segment> segments = new ArrayList<>();
+
+	/**
+	 * True when all segments are mapped
+	 */
+	private boolean mapped = false;
+
+	/**
+	 * Constructor, reading big endian record lengths
+	 * 
+	 * @param file
+	 *            record file
+	 * @throws IOException
+	 *             upon failure to map the file
+	 */
+	public GeometryRecordReader(File file) throws IOException {
+		this(file, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file
+	 *            record file
+	 * @param lengthByteOrder
+	 *            byte order of the record length prefixes
+	 * @throws IOException
+	 *             upon failure to map the file
+	 */
+	public GeometryRecordReader(File file, ByteOrder lengthByteOrder)
+			throws IOException {
+		this(file, lengthByteOrder, DEFAULT_MAX_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Constructor, mapping the first segment and verifying the first record
+	 * 
+	 * @param file
+	 *            record file
+	 * @param lengthByteOrder
+	 *            byte order of the record length prefixes
+	 * @param maxSegmentSize
+	 *            maximum number of bytes in a mapped segment, must be larger
+	 *            than the largest record
+	 * @throws IOException
+	 *             upon failure to map the file
+	 */
+	public GeometryRecordReader(File file, ByteOrder lengthByteOrder,
+			int maxSegmentSize) throws IOException {
+		this.lengthByteOrder = lengthByteOrder;
+		this.maxSegmentSize = maxSegmentSize;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			fileSize = channel.size();
+			Segment segment = getSegment(0);
+			if (segment != null) {
+				recordEnd(segment, 0, 0);
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Get the number of records, mapping and indexing all segments on first
+	 * call
+	 * 
+	 * @return record count
+	 * @throws IOException
+	 *             upon failure to map or index the file
+	 */
+	public int size() throws IOException {
+		int count = 0;
+		Segment segment = null;
+		for (int i = 0; (segment = getSegment(i)) != null; i++) {
+			count = index(segment).firstRecord + segment.count;
+		}
+		return count;
+	}
+
+	/**
+	 * Get the number of mapped segments, mapping all segments on first call
+	 * 
+	 * @return segment count
+	 * @throws IOException
+	 *             upon failure to map the file
+	 */
+	public synchronized int numSegments() throws IOException {
+		while (!mapped) {
+			mapNextSegment();
+		}
+		return segments.size();
+	}
+
+	/**
+	 * Get the file offset of the record length prefix
+	 * 
+	 * @param recordIndex
+	 *            record index
+	 * @return file offset
+	 * @throws IOException
+	 *             upon failure to map or index the file
+	 */
+	public long getRecordOffset(int recordIndex) throws IOException {
+		Segment segment = getRecordSegment(recordIndex);
+		return segment.offset + getPosition(segment, recordIndex);
+	}
+
+	/**
+	 * Get the length of the record well-known bytes
+	 * 
+	 * @param recordIndex
+	 *            record index
+	 * @return record length
+	 * @throws IOException
+	 *             upon failure to map or index the file
+	 */
+	public int getRecordLength(int recordIndex) throws IOException {
+		Segment segment = getRecordSegment(recordIndex);
+		return segment.buffer.getInt(getPosition(segment, recordIndex));
+	}
+
+	/**
+	 * Get a byte reader over the record well-known bytes, read in place from
+	 * the mapped segment
+	 * 
+	 * @param recordIndex
+	 *            record index
+	 * @return byte reader
+	 * @throws IOException
+	 *             upon failure to map or index the file
+	 */
+	public ByteBufferReader getByteReader(int recordIndex)
+			throws IOException {
+		Segment segment = getRecordSegment(recordIndex);
+		int position = getPosition(segment, recordIndex);
+		int length = segment.buffer.getInt(position);
+		return new ByteBufferReader(segment.buffer,
+				position + RECORD_LENGTH_BYTES, length);
+	}
+
+	/**
+	 * Read the record geometry
+	 * 
+	 * @param recordIndex
+	 *            record index
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry get(int recordIndex) throws IOException {
+		return get(recordIndex, null, null);
+	}
+
+	/**
+	 * Read the record geometry
+	 * 
+	 * @param recordIndex
+	 *            record index
+	 * @param filter
+	 *            geometry filter
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry get(int recordIndex, GeometryFilter filter)
+			throws IOException {
+		return get(recordIndex, filter, null);
+	}
+
+	/**
+	 * Read the record geometry
+	 * 
+	 * @param recordIndex
+	 *            record index
+	 * @param filter
+	 *            geometry filter
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public <T extends Geometry> T get(int recordIndex, GeometryFilter filter,
+			Class<T> expectedType) throws IOException {
+		T geometry = null;
+		GeometryReader reader = new GeometryReader(
+				getByteReader(recordIndex));
+		try {
+			geometry = reader.read(filter, expectedType);
+		} finally {
+			reader.close();
+		}
+		return geometry;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Geometries are read in record order by walking the records with a
+	 * single reused reader per segment. Read failures are thrown as
+	 * {@link SFException}.
+	 */
+	@Override
+	public Iterator<Geometry> iterator() {
+		return new Iterator<Geometry>() {
+
+			/**
+			 * Current segment, null after the last segment
+			 */
+			private Segment segment;
+
+			/**
+			 * Byte reader over the current segment
+			 */
+			private ByteBufferReader byteReader;
+
+			/**
+			 * Geometry reader over the byte reader
+			 */
+			private GeometryReader reader;
+
+			/**
+			 * Segment position of the next record
+			 */
+			private int position = 0;
+
+			/**
+			 * Segment position after the next record, -1 when not located
+			 */
+			private int nextPosition = -1;
+
+			/**
+			 * Next record index
+			 */
+			private int recordIndex = 0;
+
+			{
+				try {
+					setSegment(getSegment(0));
+				} catch (IOException e) {
+					throw new SFException("Failed to map geometry records",
+							e);
+				}
+			}
+
+			/**
+			 * {@inheritDoc}
+			 */
+			@Override
+			public boolean hasNext() {
+				try {
+					while (nextPosition < 0 && segment != null) {
+						nextPosition = recordEnd(segment, position,
+								recordIndex);
+						if (nextPosition < 0) {
+							setSegment(getNextSegment(segment, position));
+							position = 0;
+						}
+					}
+				} catch (IOException e) {
+					throw new SFException("Failed to locate geometry record "
+							+ recordIndex, e);
+				}
+				return nextPosition >= 0;
+			}
+
+			/**
+			 * {@inheritDoc}
+			 */
+			@Override
+			public Geometry next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				byteReader.reset(position + RECORD_LENGTH_BYTES,
+						nextPosition - position - RECORD_LENGTH_BYTES);
+				position = nextPosition;
+				nextPosition = -1;
+				try {
+					return reader.read();
+				} catch (IOException e) {
+					throw new SFException(
+							"Failed to read geometry record " + recordIndex,
+							e);
+				} finally {
+					recordIndex++;
+				}
+			}
+
+			/**
+			 * Set the current segment, creating the segment readers
+			 * 
+			 * @param segment
+			 *            segment or null
+			 */
+			private void setSegment(Segment segment) {
+				this.segment = segment;
+				if (segment != null) {
+					byteReader = new ByteBufferReader(segment.buffer, 0, 0);
+					reader = new GeometryReader(byteReader);
+				} else {
+					byteReader = null;
+					reader = null;
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Release the mapped segments and close the file. Mappings are unmapped
+	 * by the garbage collector once no longer referenced.
+	 * 
+	 * @throws IOException
+	 *             upon failure to close the file
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		segments.clear();
+		mapped = true;
+		channel.close();
+	}
+
+	/**
+	 * Get the segment, mapping segments up to it as needed
+	 * 
+	 * @param segmentIndex
+	 *            segment index
+	 * @return segment, null after the last segment
+	 * @throws IOException
+	 *             upon failure to map the file
+	 */
+	private synchronized Segment getSegment(int segmentIndex)
+			throws IOException {
+		while (segments.size() <= segmentIndex && !mapped) {
+			mapNextSegment();
+		}
+		return segmentIndex < segments.size() ? segments.get(segmentIndex)
+				: null;
+	}
+
+	/**
+	 * Get the segment following a segment, mapping it at the first record not
+	 * contained in the segment when not yet mapped
+	 * 
+	 * @param segment
+	 *            segment
+	 * @param end
+	 *            segment position after the last contained record
+	 * @return next segment, null after the last segment
+	 * @throws IOException
+	 *             upon failure to map the file
+	 */
+	private synchronized Segment getNextSegment(Segment segment, int end)
+			throws IOException {
+		int segmentIndex = segment.index + 1;
+		if (segments.size() == segmentIndex && !mapped) {
+			mapSegment(segment.offset + end);
+		}
+		return getSegment(segmentIndex);
+	}
+
+	/**
+	 * Map the segment following the last mapped segment, indexing the last
+	 * mapped segment to find the first record it does not contain
+	 * 
+	 * @throws IOException
+	 *             upon failure to map or index the file
+	 */
+	private synchronized void mapNextSegment() throws IOException {
+		long offset = 0;
+		if (!segments.isEmpty()) {
+			Segment last = index(segments.get(segments.size() - 1));
+			offset = last.offset + last.end;
+		}
+		mapSegment(offset);
+	}
+
+	/**
+	 * Map a segment at the file offset
+	 * 
+	 * @param offset
+	 *            file offset of the first segment record
+	 * @throws IOException
+	 *             upon failure to map the file
+	 */
+	private synchronized void mapSegment(long offset) throws IOException {
+		if (offset >= fileSize) {
+			mapped = true;
+		} else {
+			int segmentSize = (int) Math.min(maxSegmentSize,
+					fileSize - offset);
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, offset,
+					segmentSize);
+			buffer.order(lengthByteOrder);
+			segments.add(new Segment(segments.size(), buffer, offset,
+					segmentSize));
+		}
+	}
+
+	/**
+	 * Index the records of the segment on first call, indexing the previous
+	 * segments as needed for the first record index
+	 * 
+	 * @param segment
+	 *            segment
+	 * @return indexed segment
+	 * @throws IOException
+	 *             upon failure to index the file
+	 */
+	private synchronized Segment index(Segment segment) throws IOException {
+		if (segment.checkpoints == null) {
+
+			int firstRecord = 0;
+			if (segment.index > 0) {
+				Segment previous = index(segments.get(segment.index - 1));
+				firstRecord = previous.firstRecord + previous.count;
+			}
+
+			int[] checkpoints = new int[16];
+			int count = 0;
+			int position = 0;
+			int end;
+			while ((end = recordEnd(segment, position,
+					firstRecord + count)) >= 0) {
+				if (count % CHECKPOINT_INTERVAL == 0) {
+					int checkpoint = count / CHECKPOINT_INTERVAL;
+					if (checkpoint == checkpoints.length) {
+						checkpoints = Arrays.copyOf(checkpoints,
+								checkpoint * 2);
+					}
+					checkpoints[checkpoint] = position;
+				}
+				count++;
+				position = end;
+			}
+
+			segment.firstRecord = firstRecord;
+			segment.count = count;
+			segment.end = position;
+			segment.checkpoints = checkpoints;
+		}
+		return segment;
+	}
+
+	/**
+	 * Get the segment position after the record at the position
+	 * 
+	 * @param segment
+	 *            segment
+	 * @param position
+	 *            segment position of the record length prefix
+	 * @param recordIndex
+	 *            record index
+	 * @return segment position after the record, -1 when the record is not
+	 *         contained in the segment
+	 * @throws IOException
+	 *             upon an invalid record
+	 */
+	private int recordEnd(Segment segment, int position, int recordIndex)
+			throws IOException {
+		if (position + RECORD_LENGTH_BYTES <= segment.size) {
+			long recordLength = segment.buffer.getInt(position) & 0xffffffffL;
+			long recordEnd = position + RECORD_LENGTH_BYTES + recordLength;
+			if (segment.offset + recordEnd > fileSize) {
+				throw new IOException("Record " + recordIndex + " at offset "
+						+ (segment.offset + position) + " with length "
+						+ recordLength + " exceeds the file size of "
+						+ fileSize);
+			}
+			if (recordEnd <= segment.size) {
+				return (int) recordEnd;
+			}
+		} else if (segment.offset + position < fileSize
+				&& segment.offset + segment.size == fileSize) {
+			throw new IOException("Incomplete record length at offset "
+					+ (segment.offset + position) + " with file size "
+					+ fileSize);
+		}
+		if (position == 0) {
+			throw new IOException("Record " + recordIndex + " at offset "
+					+ segment.offset
+					+ " is larger than the maximum segment size of "
+					+ maxSegmentSize);
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the indexed segment containing the record
+	 * 
+	 * @param recordIndex
+	 *            record index
+	 * @return segment
+	 * @throws IOException
+	 *             upon failure to map or index the file
+	 */
+	private Segment getRecordSegment(int recordIndex) throws IOException {
+		if (recordIndex >= 0) {
+			Segment segment = null;
+			for (int i = 0; (segment = getSegment(i)) != null; i++) {
+				index(segment);
+				if (recordIndex < segment.firstRecord + segment.count) {
+					return segment;
+				}
+			}
+		}
+		throw new IndexOutOfBoundsException("Record index: " + recordIndex
+				+ ", Records: " + size());
+	}
+
+	/**
+	 * Get the segment position of the record length prefix, walking from the
+	 * nearest indexed record
+	 * 
+	 * @param segment
+	 *            indexed segment containing the record
+	 * @param recordIndex
+	 *            record index
+	 * @return segment position
+	 */
+	private static int getPosition(Segment segment, int recordIndex) {
+		int segmentRecord = recordIndex - segment.firstRecord;
+		int position = segment.checkpoints[segmentRecord
+				/ CHECKPOINT_INTERVAL];
+		for (int i = 0; i < segmentRecord % CHECKPOINT_INTERVAL; i++) {
+			position += RECORD_LENGTH_BYTES + segment.buffer.getInt(position);
+		}
+		return position;
+	}
+
+	/**
+	 * Mapped file segment
+	 */
+	private static class Segment {
+
+		/**
+		 * Segment index
+		 */
+		private final int index;
+
+		/**
+		 * Mapped buffer
+		 */
+		private final MappedByteBuffer buffer;
+
+		/**
+		 * File offset of the segment
+		 */
+		private final long offset;
+
+		/**
+		 * Number of mapped bytes
+		 */
+		private final int size;
+
+		/**
+		 * Record index of the first segment record, set when indexed
+		 */
+		private int firstRecord;
+
+		/**
+		 * Number of records contained in the segment, set when indexed
+		 */
+		private int count;
+
+		/**
+		 * Segment position after the last contained record, set when
+		 * indexed
+		 */
+		private int end;
+
+		/**
+		 * Segment position of the first record of each checkpoint interval,
+		 * null until indexed
+		 */
+		private int[] checkpoints;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param index
+		 *            segment index
+		 * @param buffer
+		 *            mapped buffer
+		 * @param offset
+		 *            file offset of the segment
+		 * @param size
+		 *            number of mapped bytes
+		 */
+		Segment(int index, MappedByteBuffer buffer, long offset, int size) {
+			this.index = index;
+			this.buffer = buffer;
+			this.offset = offset;
+			this.size = size;
+		}
+
+	}
+
+}
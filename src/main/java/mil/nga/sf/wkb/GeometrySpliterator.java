@@ -0,0 +1,289 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Spliterator over a byte buffer of back to back Well Known Binary geometries,
+ * either concatenated or as length prefixed records of a 4 byte unsigned
+ * record length followed by that many bytes of well-known binary. Geometries
+ * are read in place from the buffer. On the first split the remaining record
+ * offsets are indexed by skipping the geometries without decoding them, after
+ * which splits divide the records in half and sizes are known. Length
+ * prefixed geometries are read limited to their records and must end at the
+ * record end. Read failures are thrown as {@link SFException}.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometrySpliterator implements Spliterator<Geometry> {
+
+	/**
+	 * Byte buffer of geometries
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Byte order of the record length prefixes, null for concatenated
+	 * geometries
+	 */
+	private final ByteOrder lengthByteOrder;
+
+	/**
+	 * Buffer index of the first geometry byte covered by this spliterator
+	 */
+	private final int start;
+
+	/**
+	 * Byte reader over the covered geometry bytes
+	 */
+	private final ByteBufferReader reader;
+
+	/**
+	 * Geometry reader
+	 */
+	private final GeometryReader geometryReader;
+
+	/**
+	 * Byte reader limited to the current record, null for concatenated
+	 * geometries
+	 */
+	private final ByteBufferReader recordReader;
+
+	/**
+	 * Geometry reader over the record reader, null for concatenated
+	 * geometries
+	 */
+	private final GeometryReader recordGeometryReader;
+
+	/**
+	 * Buffer index of each record, followed by the buffer index after the
+	 * last record, null until indexed
+	 */
+	private int[] offsets;
+
+	/**
+	 * Offset index of the next record
+	 */
+	private int index;
+
+	/**
+	 * Offset index after the last record
+	 */
+	private int fence;
+
+	/**
+	 * Constructor for concatenated geometries from the buffer position to the
+	 * buffer limit
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 */
+	public GeometrySpliterator(ByteBuffer buffer) {
+		this(buffer, null);
+	}
+
+	/**
+	 * Constructor for geometries from the buffer position to the buffer limit
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param lengthByteOrder
+	 *            byte order of the record length prefixes, null for
+	 *            concatenated geometries
+	 */
+	public GeometrySpliterator(ByteBuffer buffer, ByteOrder lengthByteOrder) {
+		this(buffer, lengthByteOrder, buffer.position(), buffer.limit());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param lengthByteOrder
+	 *            byte order of the record length prefixes, or null
+	 * @param start
+	 *            buffer index of the first geometry byte
+	 * @param end
+	 *            buffer index after the last geometry byte
+	 */
+	private GeometrySpliterator(ByteBuffer buffer, ByteOrder lengthByteOrder,
+			int start, int end) {
+		this.buffer = buffer;
+		this.lengthByteOrder = lengthByteOrder;
+		this.start = start;
+		this.reader = new ByteBufferReader(buffer, start, end - start,
+				lengthByteOrder != null ? lengthByteOrder
+						: ByteOrder.BIG_ENDIAN);
+		this.geometryReader = new GeometryReader(reader);
+		if (lengthByteOrder != null) {
+			this.recordReader = new ByteBufferReader(buffer, start, 0);
+			this.recordGeometryReader = new GeometryReader(recordReader);
+		} else {
+			this.recordReader = null;
+			this.recordGeometryReader = null;
+		}
+	}
+
+	/**
+	 * Constructor for an indexed range of records
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param lengthByteOrder
+	 *            byte order of the record length prefixes, or null
+	 * @param offsets
+	 *            record offsets
+	 * @param index
+	 *            offset index of the first record
+	 * @param fence
+	 *            offset index after the last record
+	 */
+	private GeometrySpliterator(ByteBuffer buffer, ByteOrder lengthByteOrder,
+			int[] offsets, int index, int fence) {
+		this(buffer, lengthByteOrder, offsets[index], offsets[fence]);
+		this.offsets = offsets;
+		this.index = index;
+		this.fence = fence;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super Geometry> action) {
+		boolean advanced = reader.remaining() > 0;
+		if (advanced) {
+			action.accept(readNext());
+			if (offsets != null) {
+				index++;
+			}
+		}
+		return advanced;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Spliterator<Geometry> trySplit() {
+		GeometrySpliterator prefix = null;
+		if (offsets == null) {
+			index();
+		}
+		if (fence - index > 1) {
+			int middle = (index + fence) >>> 1;
+			prefix = new GeometrySpliterator(buffer, lengthByteOrder, offsets,
+					index, middle);
+			index = middle;
+			try {
+				reader.seek(offsets[middle] - start);
+			} catch (IOException e) {
+				throw new SFException("Failed to split geometries at offset "
+						+ offsets[middle], e);
+			}
+		}
+		return prefix;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long estimateSize() {
+		long size = Long.MAX_VALUE;
+		if (offsets != null) {
+			size = fence - index;
+		} else if (reader.remaining() == 0) {
+			size = 0;
+		}
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int characteristics() {
+		int characteristics = ORDERED | NONNULL | IMMUTABLE;
+		if (offsets != null) {
+			characteristics |= SIZED | SUBSIZED;
+		}
+		return characteristics;
+	}
+
+	/**
+	 * Read the next geometry
+	 * 
+	 * @return geometry
+	 */
+	private Geometry readNext() {
+		Geometry geometry = null;
+		int recordStart = reader.getNextByte();
+		try {
+			if (lengthByteOrder != null) {
+				long length = reader.readUnsignedInt();
+				if (length > reader.remaining()) {
+					throw new IOException("Record length of " + length
+							+ " exceeds the remaining bytes of "
+							+ reader.remaining());
+				}
+				recordReader.reset(start + reader.getNextByte(), (int) length);
+				geometry = recordGeometryReader.read();
+				if (recordReader.remaining() != 0) {
+					throw new IOException("Geometry of "
+							+ recordReader.getNextByte()
+							+ " bytes does not end at the record length of "
+							+ length);
+				}
+				reader.skip(length);
+			} else {
+				geometry = geometryReader.read();
+			}
+		} catch (IOException e) {
+			throw new SFException("Failed to read geometry at offset "
+					+ (start + recordStart), e);
+		}
+		return geometry;
+	}
+
+	/**
+	 * Index the remaining record offsets by skipping the geometries without
+	 * decoding them
+	 */
+	private void index() {
+		int nextByte = reader.getNextByte();
+		int[] recordOffsets = new int[16];
+		int count = 0;
+		try {
+			while (reader.remaining() > 0) {
+				if (count + 1 == recordOffsets.length) {
+					recordOffsets = Arrays.copyOf(recordOffsets, count * 2);
+				}
+				recordOffsets[count++] = start + reader.getNextByte();
+				if (lengthByteOrder != null) {
+					reader.skip(reader.readUnsignedInt());
+				} else {
+					geometryReader.skip();
+				}
+			}
+			recordOffsets[count] = start + reader.getNextByte();
+			reader.seek(nextByte);
+		} catch (IOException e) {
+			throw new SFException("Failed to index geometries at offset "
+					+ (start + reader.getNextByte()), e);
+		}
+		offsets = recordOffsets;
+		index = 0;
+		fence = count;
+	}
+
+}
@@ -0,0 +1,31 @@
+package mil.nga.sf.wkb;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * Geometry Filter able to accept or reject geometries from the geometry type
+ * info before the coordinates are read. Geometries rejected by type, including
+ * members of collections, are skipped without being decoded. Accepted
+ * geometries are read and then filtered as a {@link GeometryFilter}.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public interface GeometryTypeFilter extends GeometryFilter {
+
+	/**
+	 * Filter the geometry from the geometry type info, before reading the
+	 * geometry
+	 * 
+	 * @param containingType
+	 *            geometry type of the geometry containing this geometry, null
+	 *            for the top level geometry
+	 * @param geometryTypeInfo
+	 *            geometry type info
+	 * @return true if passes filter and geometry should be read
+	 */
+	public boolean filter(GeometryType containingType,
+			GeometryTypeInfo geometryTypeInfo);
+
+}
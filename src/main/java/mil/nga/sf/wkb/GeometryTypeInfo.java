@@ -3,7 +3,8 @@ package mil.nga.sf.wkb;
 import mil.nga.sf.GeometryType;
 
 /**
- * Geometry type info
+ * Geometry type info. Instances are immutable and shared through the
+ * {@link GeometryCodes} lookup tables.
  * 
  * @author osbornb
  */
@@ -0,0 +1,76 @@
+package mil.nga.sf.wkb;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+
+/**
+ * Geometry Type Filter accepting geometries of a set of geometry types.
+ * Geometries of other types, at the top level or within collections, are
+ * skipped without being decoded. Collection types must be included for their
+ * accepted members to be read.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class GeometryTypesFilter implements GeometryTypeFilter {
+
+	/**
+	 * Accepted geometry types
+	 */
+	private final Set<GeometryType> types;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param types
+	 *            accepted geometry types
+	 */
+	public GeometryTypesFilter(GeometryType... types) {
+		this.types = EnumSet.noneOf(GeometryType.class);
+		for (GeometryType type : types) {
+			this.types.add(type);
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param types
+	 *            accepted geometry types
+	 */
+	public GeometryTypesFilter(Collection<GeometryType> types) {
+		this.types = EnumSet.noneOf(GeometryType.class);
+		this.types.addAll(types);
+	}
+
+	/**
+	 * Get the accepted geometry types
+	 * 
+	 * @return geometry types
+	 */
+	public Set<GeometryType> getTypes() {
+		return types;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean filter(GeometryType containingType,
+			GeometryTypeInfo geometryTypeInfo) {
+		return types.contains(geometryTypeInfo.getGeometryType());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean filter(GeometryType containingType, Geometry geometry) {
+		return true;
+	}
+
+}
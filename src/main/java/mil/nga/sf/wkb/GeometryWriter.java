@@ -1,7 +1,12 @@
 package mil.nga.sf.wkb;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
 
 import mil.nga.sf.CircularString;
 import mil.nga.sf.CompoundCurve;
@@ -57,15 +62,343 @@ public class GeometryWriter {
 	 */
 	public static byte[] writeGeometry(Geometry geometry, ByteOrder byteOrder)
 			throws IOException {
-		byte[] bytes = null;
-		GeometryWriter writer = new GeometryWriter(byteOrder);
+		int size = sizeOf(geometry);
+		byte[] bytes = new byte[size];
+		writeGeometry(bytes, 0, size, geometry, byteOrder);
+		return bytes;
+	}
+
+	/**
+	 * Write a geometry into a byte array at an offset
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 * @param offset
+	 *            array index of the first geometry byte
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return number of bytes written
+	 * @throws IndexOutOfBoundsException
+	 *             when the geometry is larger than the remaining array bytes,
+	 *             before any bytes are written
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.0.5
+	 */
+	public static int writeGeometry(byte[] bytes, int offset,
+			Geometry geometry, ByteOrder byteOrder) throws IOException {
+		int size = sizeOf(geometry);
+		writeGeometry(bytes, offset, size, geometry, byteOrder);
+		return size;
+	}
+
+	/**
+	 * Write a geometry of a computed size into a byte array at an offset
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 * @param offset
+	 *            array index of the first geometry byte
+	 * @param size
+	 *            geometry size from {@link #sizeOf(Geometry)}
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private static void writeGeometry(byte[] bytes, int offset, int size,
+			Geometry geometry, ByteOrder byteOrder) throws IOException {
+		GeometryWriter writer = borrowWriter(bytes, offset, size, byteOrder);
 		try {
 			writer.write(geometry);
-			bytes = writer.getBytes();
 		} finally {
-			writer.close();
+			releaseWriter(writer);
 		}
-		return bytes;
+	}
+
+	/**
+	 * Write a geometry into a byte buffer at the buffer position, advancing
+	 * the position past the written bytes
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param geometry
+	 *            geometry
+	 * @return number of bytes written
+	 * @throws BufferOverflowException
+	 *             when the geometry is larger than the remaining buffer
+	 *             bytes, before any bytes are written
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.0.5
+	 */
+	public static int writeGeometry(ByteBuffer buffer, Geometry geometry)
+			throws IOException {
+		return writeGeometry(buffer, geometry, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Write a geometry into a byte buffer at the buffer position, advancing
+	 * the position past the written bytes
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return number of bytes written
+	 * @throws BufferOverflowException
+	 *             when the geometry is larger than the remaining buffer
+	 *             bytes, before any bytes are written
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.0.5
+	 */
+	public static int writeGeometry(ByteBuffer buffer, Geometry geometry,
+			ByteOrder byteOrder) throws IOException {
+		int size = sizeOf(geometry);
+		if (size > buffer.remaining()) {
+			throw new BufferOverflowException();
+		}
+		if (buffer.hasArray()) {
+			writeGeometry(buffer.array(),
+					buffer.arrayOffset() + buffer.position(), size, geometry,
+					byteOrder);
+		} else {
+			GeometryWriter writer = new GeometryWriter(
+					new ByteBufferWriter(buffer, byteOrder));
+			try {
+				writer.write(geometry);
+			} finally {
+				writer.close();
+			}
+		}
+		buffer.position(buffer.position() + size);
+		return size;
+	}
+
+	/**
+	 * Write a geometry to an output stream through a small fixed size buffer,
+	 * without holding the complete well-known bytes in memory. The output
+	 * stream is flushed and is not closed.
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 * @param geometry
+	 *            geometry
+	 * @return number of bytes written
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.0.5
+	 */
+	public static long writeGeometry(OutputStream outputStream,
+			Geometry geometry) throws IOException {
+		return writeGeometry(outputStream, geometry,
+				ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Write a geometry to an output stream through a small fixed size buffer,
+	 * without holding the complete well-known bytes in memory. The output
+	 * stream is flushed and is not closed.
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return number of bytes written
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.0.5
+	 */
+	public static long writeGeometry(OutputStream outputStream,
+			Geometry geometry, ByteOrder byteOrder) throws IOException {
+		StreamByteWriter streamWriter = new StreamByteWriter(outputStream,
+				byteOrder);
+		new GeometryWriter(streamWriter).write(geometry);
+		streamWriter.flush();
+		return streamWriter.getBytesWritten();
+	}
+
+	/**
+	 * Thread confined reusable writer for the static byte array writes,
+	 * absent while in use
+	 */
+	private static final ThreadLocal<GeometryWriter> threadWriter = new ThreadLocal<>();
+
+	/**
+	 * Borrow the thread confined reusable writer, or create a writer when in
+	 * use by a nested write
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 * @param offset
+	 *            array index of the first byte
+	 * @param length
+	 *            number of bytes
+	 * @param byteOrder
+	 *            byte order
+	 * @return geometry writer
+	 */
+	private static GeometryWriter borrowWriter(byte[] bytes, int offset,
+			int length, ByteOrder byteOrder) {
+		GeometryWriter writer = threadWriter.get();
+		if (writer != null) {
+			threadWriter.set(null);
+			writer.reset(bytes, offset, length);
+			writer.writer.setByteOrder(byteOrder);
+		} else {
+			writer = new GeometryWriter(
+					new ByteArrayWriter(bytes, offset, length, byteOrder));
+		}
+		return writer;
+	}
+
+	/**
+	 * Release a borrowed writer back to the thread for reuse
+	 * 
+	 * @param writer
+	 *            geometry writer
+	 */
+	private static void releaseWriter(GeometryWriter writer) {
+		((ByteArrayWriter) writer.writer).clear();
+		threadWriter.set(writer);
+	}
+
+	/**
+	 * Get the number of well-known bytes written for a geometry
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return encoded byte size
+	 * @throws SFException
+	 *             when the encoded byte size does not fit in an int
+	 * @since 2.0.5
+	 */
+	public static int sizeOf(Geometry geometry) {
+		long size = sizeOfGeometry(geometry);
+		if (size > Integer.MAX_VALUE) {
+			throw new SFException(
+					"Geometry larger than a single byte array: " + size);
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Get the number of well-known bytes written for a geometry, summed
+	 * without overflow
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return encoded byte size
+	 */
+	private static long sizeOfGeometry(Geometry geometry) {
+
+		// Byte order byte and geometry type integer
+		long size = 5;
+
+		GeometryType geometryType = geometry.getGeometryType();
+
+		switch (geometryType) {
+
+		case GEOMETRY:
+		case CURVE:
+		case SURFACE:
+			throw new SFException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		case POINT:
+			size += sizeOfPoint((Point) geometry);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			size += sizeOfLineString((LineString) geometry);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			Polygon polygon = (Polygon) geometry;
+			size += 4;
+			for (LineString ring : polygon.getRings()) {
+				size += sizeOfLineString(ring);
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+			GeometryCollection<?> geometryCollection = (GeometryCollection<?>) geometry;
+			size += 4;
+			for (Geometry member : geometryCollection.getGeometries()) {
+				size += sizeOfGeometry(member);
+			}
+			break;
+		case COMPOUNDCURVE:
+			CompoundCurve compoundCurve = (CompoundCurve) geometry;
+			size += 4;
+			for (LineString lineString : compoundCurve.getLineStrings()) {
+				size += sizeOfGeometry(lineString);
+			}
+			break;
+		case CURVEPOLYGON:
+			CurvePolygon<?> curvePolygon = (CurvePolygon<?>) geometry;
+			size += 4;
+			for (Curve ring : curvePolygon.getRings()) {
+				size += sizeOfGeometry(ring);
+			}
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			PolyhedralSurface polyhedralSurface = (PolyhedralSurface) geometry;
+			size += 4;
+			for (Polygon face : polyhedralSurface.getPolygons()) {
+				size += sizeOfGeometry(face);
+			}
+			break;
+		default:
+			throw new SFException(
+					"Geometry Type not supported: " + geometryType);
+		}
+
+		return size;
+	}
+
+	/**
+	 * Get the number of bytes written for a point's values
+	 * 
+	 * @param point
+	 *            point
+	 * @return byte size
+	 */
+	private static int sizeOfPoint(Point point) {
+		int size = 16;
+		if (point.hasZ()) {
+			size += 8;
+		}
+		if (point.hasM()) {
+			size += 8;
+		}
+		return size;
+	}
+
+	/**
+	 * Get the number of bytes written for a line string's point count and
+	 * points. Points are written in the line string dimensions.
+	 * 
+	 * @param lineString
+	 *            line string
+	 * @return byte size
+	 */
+	private static long sizeOfLineString(LineString lineString) {
+		return 4 + 8L * PackedGeometry.dimension(lineString.hasZ(),
+				lineString.hasM()) * lineString.numPoints();
 	}
 
 	/**
@@ -73,6 +406,11 @@ public class GeometryWriter {
 	 */
 	private ByteWriter writer;
 
+	/**
+	 * Reused coordinate values for bulk writes, created on first use
+	 */
+	private double[] values;
+
 	/**
 	 * Constructor
 	 * 
@@ -93,6 +431,92 @@ public class GeometryWriter {
 		this(new ByteWriter(byteOrder));
 	}
 
+	/**
+	 * Constructor, writing into the buffer from the buffer position without
+	 * modifying the provided buffer
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @since 2.0.5
+	 */
+	public GeometryWriter(ByteBuffer buffer) {
+		this(buffer, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor, writing into the buffer from the buffer position without
+	 * modifying the provided buffer
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param byteOrder
+	 *            byte order
+	 * @since 2.0.5
+	 */
+	public GeometryWriter(ByteBuffer buffer, ByteOrder byteOrder) {
+		this(new ByteBufferWriter(buffer, byteOrder));
+	}
+
+	/**
+	 * Constructor to incrementally write geometries to an output stream
+	 * through a small fixed size buffer. Closing the writer flushes and
+	 * closes the stream. The written bytes are not retained and are not
+	 * available from {@link #getBytes()}.
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 * @since 2.0.5
+	 */
+	public GeometryWriter(OutputStream outputStream) {
+		this(outputStream, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor to incrementally write geometries to an output stream
+	 * through a small fixed size buffer. Closing the writer flushes and
+	 * closes the stream. The written bytes are not retained and are not
+	 * available from {@link #getBytes()}.
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 * @param byteOrder
+	 *            byte order
+	 * @since 2.0.5
+	 */
+	public GeometryWriter(OutputStream outputStream, ByteOrder byteOrder) {
+		this(new StreamByteWriter(outputStream, byteOrder));
+	}
+
+	/**
+	 * Constructor to incrementally write geometries to a blocking writable
+	 * byte channel through a small fixed size buffer. Closing the writer
+	 * flushes and closes the channel. The written bytes are not retained and
+	 * are not available from {@link #getBytes()}.
+	 * 
+	 * @param channel
+	 *            writable byte channel
+	 * @since 2.0.5
+	 */
+	public GeometryWriter(WritableByteChannel channel) {
+		this(channel, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor to incrementally write geometries to a blocking writable
+	 * byte channel through a small fixed size buffer. Closing the writer
+	 * flushes and closes the channel. The written bytes are not retained and
+	 * are not available from {@link #getBytes()}.
+	 * 
+	 * @param channel
+	 *            writable byte channel
+	 * @param byteOrder
+	 *            byte order
+	 * @since 2.0.5
+	 */
+	public GeometryWriter(WritableByteChannel channel, ByteOrder byteOrder) {
+		this(new StreamByteWriter(channel, byteOrder));
+	}
+
 	/**
 	 * Constructor
 	 * 
@@ -118,12 +542,68 @@ public class GeometryWriter {
 	 * Get the written bytes
 	 * 
 	 * @return written bytes
+	 * @throws SFException
+	 *             when writing to an output stream or channel, which do not
+	 *             retain the written bytes
 	 * @since 2.0.4
 	 */
 	public byte[] getBytes() {
 		return writer.getBytes();
 	}
 
+	/**
+	 * Reset the writer to write the next geometry from the start, keeping the
+	 * grown byte buffer of the default byte writer for reuse. Written bytes
+	 * should be retrieved with {@link #getBytes()} before resetting.
+	 * 
+	 * @since 2.0.5
+	 */
+	public void reset() {
+		if (writer instanceof ByteArrayWriter) {
+			((ByteArrayWriter) writer).reset();
+		} else if (writer instanceof ByteBufferWriter) {
+			((ByteBufferWriter) writer).reset();
+		} else if (writer instanceof StreamByteWriter) {
+			throw new SFException(
+					"Stream byte writers can not be reset, bytes have already been written");
+		} else {
+			writer.getOutputStream().reset();
+		}
+	}
+
+	/**
+	 * Reset the writer to write geometries into all bytes of an array,
+	 * reusing the writer and its byte writer when resettable
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 * @since 2.0.5
+	 */
+	public void reset(byte[] bytes) {
+		reset(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Reset the writer to write geometries into an array range, reusing the
+	 * writer and its byte writer when resettable. The byte order is kept.
+	 * 
+	 * @param bytes
+	 *            bytes to write into
+	 * @param offset
+	 *            array index of the first geometry byte
+	 * @param length
+	 *            maximum number of geometry bytes
+	 * @since 2.0.5
+	 */
+	public void reset(byte[] bytes, int offset, int length) {
+		if (writer instanceof ByteArrayWriter) {
+			((ByteArrayWriter) writer).reset(bytes, offset, length);
+		} else {
+			writer = new ByteArrayWriter(bytes, offset, length,
+					writer.getByteOrder());
+		}
+	}
+
 	/**
 	 * Close the byte writer
 	 * 
@@ -286,9 +766,7 @@ public class GeometryWriter {
 
 		writer.writeInt(lineString.numPoints());
 
-		for (Point point : lineString.getPoints()) {
-			writePoint(point);
-		}
+		writePoints(lineString);
 
 	}
 
@@ -404,12 +882,185 @@ public class GeometryWriter {
 
 		writer.writeInt(circularString.numPoints());
 
-		for (Point point : circularString.getPoints()) {
-			writePoint(point);
+		writePoints(circularString);
+
+	}
+
+	/**
+	 * Write the points of a line string or circular string in the line string
+	 * dimensions, gathering runs of coordinates for a bulk copy when
+	 * supported by the byte writer. The coordinate loop is selected once from
+	 * the line string dimensions. Missing point z and m values are written as
+	 * NaN and point values outside of the line string dimensions are not
+	 * written, matching the line string header and size.
+	 * 
+	 * @param lineString
+	 *            line string or circular string
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writePoints(LineString lineString) throws IOException {
+
+		List<Point> points = lineString.getPoints();
+		boolean hasZ = lineString.hasZ();
+		boolean hasM = lineString.hasM();
+
+		if (writer instanceof BulkByteWriter) {
+
+			if (values == null) {
+				values = new double[GeometryReader.BULK_VALUES];
+			}
+
+			if (hasZ && hasM) {
+				writePointsXYZM(points);
+			} else if (hasZ) {
+				writePointsXYZ(points);
+			} else if (hasM) {
+				writePointsXYM(points);
+			} else {
+				writePointsXY(points);
+			}
+
+		} else {
+
+			for (Point point : points) {
+				writer.writeDouble(point.getX());
+				writer.writeDouble(point.getY());
+				if (hasZ) {
+					writer.writeDouble(getZ(point));
+				}
+				if (hasM) {
+					writer.writeDouble(getM(point));
+				}
+			}
+
 		}
 
 	}
 
+	/**
+	 * Write the points of a line string without z and m values in bulk
+	 * chunks
+	 * 
+	 * @param points
+	 *            points
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writePointsXY(List<Point> points) throws IOException {
+		BulkByteWriter bulkWriter = (BulkByteWriter) writer;
+		double[] values = this.values;
+		int count = 0;
+		for (Point point : points) {
+			if (count == values.length) {
+				bulkWriter.writeDoubles(values, 0, count);
+				count = 0;
+			}
+			values[count] = point.getX();
+			values[count + 1] = point.getY();
+			count += 2;
+		}
+		bulkWriter.writeDoubles(values, 0, count);
+	}
+
+	/**
+	 * Write the points of a line string with z values in bulk chunks
+	 * 
+	 * @param points
+	 *            points
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writePointsXYZ(List<Point> points) throws IOException {
+		BulkByteWriter bulkWriter = (BulkByteWriter) writer;
+		double[] values = this.values;
+		int count = 0;
+		for (Point point : points) {
+			if (count > values.length - 3) {
+				bulkWriter.writeDoubles(values, 0, count);
+				count = 0;
+			}
+			values[count] = point.getX();
+			values[count + 1] = point.getY();
+			values[count + 2] = getZ(point);
+			count += 3;
+		}
+		bulkWriter.writeDoubles(values, 0, count);
+	}
+
+	/**
+	 * Write the points of a line string with m values in bulk chunks
+	 * 
+	 * @param points
+	 *            points
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writePointsXYM(List<Point> points) throws IOException {
+		BulkByteWriter bulkWriter = (BulkByteWriter) writer;
+		double[] values = this.values;
+		int count = 0;
+		for (Point point : points) {
+			if (count > values.length - 3) {
+				bulkWriter.writeDoubles(values, 0, count);
+				count = 0;
+			}
+			values[count] = point.getX();
+			values[count + 1] = point.getY();
+			values[count + 2] = getM(point);
+			count += 3;
+		}
+		bulkWriter.writeDoubles(values, 0, count);
+	}
+
+	/**
+	 * Write the points of a line string with z and m values in bulk chunks
+	 * 
+	 * @param points
+	 *            points
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writePointsXYZM(List<Point> points) throws IOException {
+		BulkByteWriter bulkWriter = (BulkByteWriter) writer;
+		double[] values = this.values;
+		int count = 0;
+		for (Point point : points) {
+			if (count == values.length) {
+				bulkWriter.writeDoubles(values, 0, count);
+				count = 0;
+			}
+			values[count] = point.getX();
+			values[count + 1] = point.getY();
+			values[count + 2] = getZ(point);
+			values[count + 3] = getM(point);
+			count += 4;
+		}
+		bulkWriter.writeDoubles(values, 0, count);
+	}
+
+	/**
+	 * Get the point z value, NaN when the point has no z value
+	 * 
+	 * @param point
+	 *            point
+	 * @return z value
+	 */
+	private static double getZ(Point point) {
+		return point.hasZ() ? point.getZ() : Double.NaN;
+	}
+
+	/**
+	 * Get the point m value, NaN when the point has no m value
+	 * 
+	 * @param point
+	 *            point
+	 * @return m value
+	 */
+	private static double getM(Point point) {
+		return point.hasM() ? point.getM() : Double.NaN;
+	}
+
 	/**
 	 * Write a Compound Curve
 	 * 
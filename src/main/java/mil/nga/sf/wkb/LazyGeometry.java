@@ -0,0 +1,221 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Lazy view of a Well Known Binary geometry. The geometry type and member
+ * byte offsets are read up front by skipping the members without decoding
+ * them, and each member is decoded on first access. The source bytes are
+ * referenced by the view and must not be modified while in use. Lazy
+ * geometries are not thread safe.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class LazyGeometry {
+
+	/**
+	 * Source bytes
+	 */
+	private final byte[] bytes;
+
+	/**
+	 * Array index of the first geometry byte
+	 */
+	private final int offset;
+
+	/**
+	 * Number of geometry bytes
+	 */
+	private final int length;
+
+	/**
+	 * Geometry type info
+	 */
+	private final GeometryTypeInfo geometryTypeInfo;
+
+	/**
+	 * Array index of each member, followed by the array index after the last
+	 * member
+	 */
+	private final int[] memberOffsets;
+
+	/**
+	 * Decoded members
+	 */
+	private final Geometry[] members;
+
+	/**
+	 * Decoded geometry
+	 */
+	private Geometry geometry;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            source bytes
+	 * @param offset
+	 *            array index of the first geometry byte
+	 * @param length
+	 *            maximum number of geometry bytes
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	LazyGeometry(byte[] bytes, int offset, int length) throws IOException {
+		this.bytes = bytes;
+		this.offset = offset;
+
+		ByteArrayReader byteReader = new ByteArrayReader(bytes, offset,
+				length);
+		GeometryReader reader = new GeometryReader(byteReader);
+		geometryTypeInfo = reader.readGeometryType();
+
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		if (GeometryReader.hasMembers(geometryType)) {
+			int count = reader.readCount(geometryType);
+			int remaining = byteReader.remaining();
+			if (count > remaining / 5) {
+				// Each member has at least a byte order and geometry type
+				throw new SFException("Invalid " + geometryType.name()
+						+ " element count: " + count + ", Remaining Bytes: "
+						+ remaining);
+			}
+			memberOffsets = new int[count + 1];
+			for (int i = 0; i < count; i++) {
+				memberOffsets[i] = offset + byteReader.getNextByte();
+				reader.skip();
+			}
+			memberOffsets[count] = offset + byteReader.getNextByte();
+			members = new Geometry[count];
+			this.length = byteReader.getNextByte();
+		} else {
+			memberOffsets = new int[0];
+			members = new Geometry[0];
+			byteReader.seek(0);
+			this.length = (int) reader.skip();
+		}
+	}
+
+	/**
+	 * Get the geometry type info
+	 * 
+	 * @return geometry type info
+	 */
+	public GeometryTypeInfo getGeometryTypeInfo() {
+		return geometryTypeInfo;
+	}
+
+	/**
+	 * Get the geometry type
+	 * 
+	 * @return geometry type
+	 */
+	public GeometryType getGeometryType() {
+		return geometryTypeInfo.getGeometryType();
+	}
+
+	/**
+	 * Has z values
+	 * 
+	 * @return true if has z values
+	 */
+	public boolean hasZ() {
+		return geometryTypeInfo.hasZ();
+	}
+
+	/**
+	 * Has m values
+	 * 
+	 * @return true if has m values
+	 */
+	public boolean hasM() {
+		return geometryTypeInfo.hasM();
+	}
+
+	/**
+	 * Get the number of geometry bytes
+	 * 
+	 * @return byte length
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Get the number of members, zero for geometries without geometry members
+	 * 
+	 * @return member count
+	 */
+	public int numGeometries() {
+		return members.length;
+	}
+
+	/**
+	 * Get the member, decoding it on first access
+	 * 
+	 * @param index
+	 *            member index
+	 * @return member geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry getGeometry(int index) throws IOException {
+		int memberLength = getMemberLength(index);
+		Geometry member = members[index];
+		if (member == null) {
+			member = new GeometryReader(bytes, memberOffsets[index],
+					memberLength).read();
+			members[index] = member;
+		}
+		return member;
+	}
+
+	/**
+	 * Get a lazy view of the member
+	 * 
+	 * @param index
+	 *            member index
+	 * @return lazy member geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public LazyGeometry getLazyGeometry(int index) throws IOException {
+		int memberLength = getMemberLength(index);
+		return new LazyGeometry(bytes, memberOffsets[index], memberLength);
+	}
+
+	/**
+	 * Get the complete geometry, decoding it on first access
+	 * 
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry getGeometry() throws IOException {
+		if (geometry == null) {
+			geometry = new GeometryReader(bytes, offset, length).read();
+		}
+		return geometry;
+	}
+
+	/**
+	 * Get the number of bytes in the member, validating the member index
+	 * 
+	 * @param index
+	 *            member index
+	 * @return byte length
+	 */
+	private int getMemberLength(int index) {
+		if (index < 0 || index >= members.length) {
+			throw new IndexOutOfBoundsException(
+					"Member index: " + index + ", Members: " + members.length);
+		}
+		return memberOffsets[index + 1] - memberOffsets[index];
+	}
+
+}
@@ -0,0 +1,464 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import mil.nga.sf.GeometryType;
+
+/**
+ * Compact primitive representation of a Well Known Binary geometry. All
+ * coordinates are packed into a single interleaved array (x, y[, z][, m]) in
+ * the dimensions of the top level geometry, with part offsets marking the
+ * start of each point sequence (point, line string, circular string, or
+ * ring). The geometry structure is described by nodes in depth first order,
+ * each with a geometry type and a count: the number of points for point
+ * sequences and the number of child nodes for all other types. Polygon and
+ * triangle rings are line string nodes.
+ * 
+ * Nested geometries missing a top level Z or M value have NaN ordinates, and
+ * nested Z or M values not in the top level geometry are dropped.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class PackedGeometry {
+
+	/**
+	 * Geometry type
+	 */
+	private final GeometryType geometryType;
+
+	/**
+	 * Has Z values flag
+	 */
+	private final boolean hasZ;
+
+	/**
+	 * Has M values flag
+	 */
+	private final boolean hasM;
+
+	/**
+	 * Interleaved coordinates
+	 */
+	private final double[] coordinates;
+
+	/**
+	 * Point offsets of each part, followed by the number of points
+	 */
+	private final int[] partOffsets;
+
+	/**
+	 * Depth first node geometry types
+	 */
+	private final GeometryType[] nodeTypes;
+
+	/**
+	 * Depth first node point or child counts
+	 */
+	private final int[] nodeCounts;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param coordinates
+	 *            interleaved coordinates
+	 * @param partOffsets
+	 *            part point offsets followed by the number of points
+	 * @param nodeTypes
+	 *            depth first node geometry types
+	 * @param nodeCounts
+	 *            depth first node point or child counts
+	 */
+	PackedGeometry(GeometryType geometryType, boolean hasZ, boolean hasM,
+			double[] coordinates, int[] partOffsets, GeometryType[] nodeTypes,
+			int[] nodeCounts) {
+		this.geometryType = geometryType;
+		this.hasZ = hasZ;
+		this.hasM = hasM;
+		this.coordinates = coordinates;
+		this.partOffsets = partOffsets;
+		this.nodeTypes = nodeTypes;
+		this.nodeCounts = nodeCounts;
+	}
+
+	/**
+	 * Get the geometry type
+	 * 
+	 * @return geometry type
+	 */
+	public GeometryType getGeometryType() {
+		return geometryType;
+	}
+
+	/**
+	 * Has z values
+	 * 
+	 * @return true if has z values
+	 */
+	public boolean hasZ() {
+		return hasZ;
+	}
+
+	/**
+	 * Has m values
+	 * 
+	 * @return true if has m values
+	 */
+	public boolean hasM() {
+		return hasM;
+	}
+
+	/**
+	 * Get the number of values per coordinate
+	 * 
+	 * @return dimension, 2 through 4
+	 */
+	public int getDimension() {
+		return dimension(hasZ, hasM);
+	}
+
+	/**
+	 * Get the interleaved coordinates
+	 * 
+	 * @return coordinates
+	 */
+	public double[] getCoordinates() {
+		return coordinates;
+	}
+
+	/**
+	 * Get the number of points
+	 * 
+	 * @return point count
+	 */
+	public int numPoints() {
+		return partOffsets[partOffsets.length - 1];
+	}
+
+	/**
+	 * Get the x value of a point
+	 * 
+	 * @param point
+	 *            point index
+	 * @return x value
+	 */
+	public double getX(int point) {
+		return coordinates[point * getDimension()];
+	}
+
+	/**
+	 * Get the y value of a point
+	 * 
+	 * @param point
+	 *            point index
+	 * @return y value
+	 */
+	public double getY(int point) {
+		return coordinates[point * getDimension() + 1];
+	}
+
+	/**
+	 * Get the z value of a point
+	 * 
+	 * @param point
+	 *            point index
+	 * @return z value, NaN when no z values
+	 */
+	public double getZ(int point) {
+		return hasZ ? coordinates[point * getDimension() + 2] : Double.NaN;
+	}
+
+	/**
+	 * Get the m value of a point
+	 * 
+	 * @param point
+	 *            point index
+	 * @return m value, NaN when no m values
+	 */
+	public double getM(int point) {
+		return hasM ? coordinates[(point + 1) * getDimension() - 1]
+				: Double.NaN;
+	}
+
+	/**
+	 * Get the number of parts (point sequences)
+	 * 
+	 * @return part count
+	 */
+	public int numParts() {
+		return partOffsets.length - 1;
+	}
+
+	/**
+	 * Get the part point offsets, followed by the number of points
+	 * 
+	 * @return part offsets
+	 */
+	public int[] getPartOffsets() {
+		return partOffsets;
+	}
+
+	/**
+	 * Get the index of the first point in the part
+	 * 
+	 * @param part
+	 *            part index
+	 * @return point index
+	 */
+	public int getPartStart(int part) {
+		return partOffsets[part];
+	}
+
+	/**
+	 * Get the number of points in the part
+	 * 
+	 * @param part
+	 *            part index
+	 * @return point count
+	 */
+	public int numPartPoints(int part) {
+		return partOffsets[part + 1] - partOffsets[part];
+	}
+
+	/**
+	 * Get the number of structure nodes
+	 * 
+	 * @return node count
+	 */
+	public int numNodes() {
+		return nodeTypes.length;
+	}
+
+	/**
+	 * Get the geometry type of a depth first node
+	 * 
+	 * @param node
+	 *            node index
+	 * @return geometry type
+	 */
+	public GeometryType getNodeType(int node) {
+		return nodeTypes[node];
+	}
+
+	/**
+	 * Get the count of a depth first node, the number of points for point
+	 * sequences or the number of child nodes otherwise
+	 * 
+	 * @param node
+	 *            node index
+	 * @return point or child count
+	 */
+	public int getNodeCount(int node) {
+		return nodeCounts[node];
+	}
+
+	/**
+	 * Get the number of values per coordinate
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @return dimension
+	 */
+	static int dimension(boolean hasZ, boolean hasM) {
+		int dimension = 2;
+		if (hasZ) {
+			dimension++;
+		}
+		if (hasM) {
+			dimension++;
+		}
+		return dimension;
+	}
+
+	/**
+	 * Packed geometry builder, growing the arrays as geometries are read
+	 */
+	static class Builder {
+
+		/**
+		 * Geometry type
+		 */
+		private final GeometryType geometryType;
+
+		/**
+		 * Has Z values flag
+		 */
+		private final boolean hasZ;
+
+		/**
+		 * Has M values flag
+		 */
+		private final boolean hasM;
+
+		/**
+		 * Number of values per coordinate
+		 */
+		private final int dimension;
+
+		/**
+		 * Interleaved coordinates
+		 */
+		private double[] coordinates = new double[64];
+
+		/**
+		 * Number of coordinate values
+		 */
+		private int coordinateCount = 0;
+
+		/**
+		 * Part point offsets
+		 */
+		private int[] partOffsets = new int[8];
+
+		/**
+		 * Number of parts
+		 */
+		private int partCount = 0;
+
+		/**
+		 * Node geometry types
+		 */
+		private GeometryType[] nodeTypes = new GeometryType[8];
+
+		/**
+		 * Node counts
+		 */
+		private int[] nodeCounts = new int[8];
+
+		/**
+		 * Number of nodes
+		 */
+		private int nodeCount = 0;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param geometryType
+		 *            top level geometry type
+		 * @param hasZ
+		 *            top level has z
+		 * @param hasM
+		 *            top level has m
+		 */
+		Builder(GeometryType geometryType, boolean hasZ, boolean hasM) {
+			this.geometryType = geometryType;
+			this.hasZ = hasZ;
+			this.hasM = hasM;
+			this.dimension = dimension(hasZ, hasM);
+		}
+
+		/**
+		 * Add a structure node
+		 * 
+		 * @param type
+		 *            geometry type
+		 * @param count
+		 *            point or child count
+		 */
+		void addNode(GeometryType type, int count) {
+			if (nodeCount == nodeTypes.length) {
+				nodeTypes = Arrays.copyOf(nodeTypes, nodeCount * 2);
+				nodeCounts = Arrays.copyOf(nodeCounts, nodeCount * 2);
+			}
+			nodeTypes[nodeCount] = type;
+			nodeCounts[nodeCount++] = count;
+		}
+
+		/**
+		 * Start a new part at the next point
+		 */
+		void addPart() {
+			if (partCount == partOffsets.length) {
+				partOffsets = Arrays.copyOf(partOffsets, partCount * 2);
+			}
+			partOffsets[partCount++] = coordinateCount / dimension;
+		}
+
+		/**
+		 * Add a point to the current part
+		 * 
+		 * @param x
+		 *            x value
+		 * @param y
+		 *            y value
+		 * @param z
+		 *            z value or NaN
+		 * @param m
+		 *            m value or NaN
+		 */
+		void addPoint(double x, double y, double z, double m) {
+			if (coordinateCount + dimension > coordinates.length) {
+				coordinates = Arrays.copyOf(coordinates,
+						coordinates.length * 2);
+			}
+			coordinates[coordinateCount++] = x;
+			coordinates[coordinateCount++] = y;
+			if (hasZ) {
+				coordinates[coordinateCount++] = z;
+			}
+			if (hasM) {
+				coordinates[coordinateCount++] = m;
+			}
+		}
+
+		/**
+		 * Check if the packed coordinates have the dimensions
+		 * 
+		 * @param z
+		 *            has z
+		 * @param m
+		 *            has m
+		 * @return true if the same dimensions
+		 */
+		boolean hasDimensions(boolean z, boolean m) {
+			return hasZ == z && hasM == m;
+		}
+
+		/**
+		 * Add points to the current part by reading their coordinates in
+		 * the packed dimensions directly into the packed coordinates
+		 * 
+		 * @param reader
+		 *            bulk byte reader
+		 * @param numPoints
+		 *            number of points
+		 * @throws IOException
+		 *             upon failure to read
+		 */
+		void addPoints(BulkByteReader reader, int numPoints)
+				throws IOException {
+			int length = numPoints * dimension;
+			if (coordinateCount + length > coordinates.length) {
+				coordinates = Arrays.copyOf(coordinates, Math.max(
+						coordinateCount + length, coordinates.length * 2));
+			}
+			reader.readDoubles(coordinates, coordinateCount, length);
+			coordinateCount += length;
+		}
+
+		/**
+		 * Build the packed geometry
+		 * 
+		 * @return packed geometry
+		 */
+		PackedGeometry build() {
+			int[] offsets = Arrays.copyOf(partOffsets, partCount + 1);
+			offsets[partCount] = coordinateCount / dimension;
+			return new PackedGeometry(geometryType, hasZ, hasM,
+					Arrays.copyOf(coordinates, coordinateCount), offsets,
+					Arrays.copyOf(nodeTypes, nodeCount),
+					Arrays.copyOf(nodeCounts, nodeCount));
+		}
+
+	}
+
+}
@@ -0,0 +1,387 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import mil.nga.sf.util.ByteReader;
+
+/**
+ * Byte Reader recording the values read from another byte reader and then
+ * replaying them, so a geometry scanned for its envelope is decoded from the
+ * recorded values without reading the bytes again. Used for byte readers
+ * that can not seek back, such as streams. Skipped bytes are coordinates,
+ * recorded and replayed as whole double values. Recorded value buffers grown
+ * beyond the retained capacity are released when cleared.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+class ReplayByteReader extends ByteReader
+		implements BulkByteReader, SkippableByteReader {
+
+	/**
+	 * Empty bytes
+	 */
+	private static final byte[] EMPTY_BYTES = new byte[0];
+
+	/**
+	 * Initial number of recorded byte and int values
+	 */
+	private static final int INITIAL_VALUES = 16;
+
+	/**
+	 * Initial number of recorded double values
+	 */
+	private static final int INITIAL_DOUBLES = 64;
+
+	/**
+	 * Maximum number of recorded values of each type retained when cleared
+	 */
+	private static final int RETAINED_VALUES = 8192;
+
+	/**
+	 * Recorded byte reader, null when cleared
+	 */
+	private ByteReader reader;
+
+	/**
+	 * Replaying flag, false when recording
+	 */
+	private boolean replaying = false;
+
+	/**
+	 * Replay byte order
+	 */
+	private ByteOrder byteOrder;
+
+	/**
+	 * Recorded byte values
+	 */
+	private byte[] bytes = new byte[INITIAL_VALUES];
+
+	/**
+	 * Number of recorded byte values
+	 */
+	private int byteCount = 0;
+
+	/**
+	 * Index of the next replayed byte value
+	 */
+	private int byteIndex = 0;
+
+	/**
+	 * Recorded int values
+	 */
+	private int[] ints = new int[INITIAL_VALUES];
+
+	/**
+	 * Number of recorded int values
+	 */
+	private int intCount = 0;
+
+	/**
+	 * Index of the next replayed int value
+	 */
+	private int intIndex = 0;
+
+	/**
+	 * Recorded double values
+	 */
+	private double[] doubles = new double[INITIAL_DOUBLES];
+
+	/**
+	 * Number of recorded double values
+	 */
+	private int doubleCount = 0;
+
+	/**
+	 * Index of the next replayed double value
+	 */
+	private int doubleIndex = 0;
+
+	/**
+	 * Constructor
+	 */
+	ReplayByteReader() {
+		super(EMPTY_BYTES);
+	}
+
+	/**
+	 * Start recording the values read from the byte reader, discarding
+	 * previously recorded values
+	 * 
+	 * @param reader
+	 *            byte reader
+	 */
+	void record(ByteReader reader) {
+		this.reader = reader;
+		replaying = false;
+		byteCount = 0;
+		intCount = 0;
+		doubleCount = 0;
+	}
+
+	/**
+	 * Start replaying the recorded values from the first value, in the
+	 * current byte order of the recorded byte reader
+	 */
+	void replay() {
+		replaying = true;
+		byteOrder = reader.getByteOrder();
+		byteIndex = 0;
+		intIndex = 0;
+		doubleIndex = 0;
+	}
+
+	/**
+	 * Clear the recorded byte reader, releasing recorded value buffers grown
+	 * beyond the retained capacity
+	 */
+	void clear() {
+		reader = null;
+		replaying = false;
+		byteCount = 0;
+		intCount = 0;
+		doubleCount = 0;
+		if (bytes.length > RETAINED_VALUES) {
+			bytes = new byte[INITIAL_VALUES];
+		}
+		if (ints.length > RETAINED_VALUES) {
+			ints = new int[INITIAL_VALUES];
+		}
+		if (doubles.length > RETAINED_VALUES) {
+			doubles = new double[INITIAL_DOUBLES];
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The next byte of the recorded byte reader, after all recorded values.
+	 */
+	@Override
+	public int getNextByte() {
+		return reader.getNextByte();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ByteOrder getByteOrder() {
+		return replaying ? byteOrder : reader.getByteOrder();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteOrder(ByteOrder byteOrder) {
+		if (replaying) {
+			this.byteOrder = byteOrder;
+		} else {
+			reader.setByteOrder(byteOrder);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+		clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * String bytes are recorded and replayed as byte values.
+	 */
+	@Override
+	public String readString(int num) throws IOException {
+		int start;
+		if (replaying) {
+			verifyRemaining(byteIndex, byteCount, num);
+			start = byteIndex;
+			byteIndex += num;
+		} else {
+			ensureBytes(num);
+			start = byteCount;
+			for (int i = 0; i < num; i++) {
+				bytes[byteCount++] = reader.readByte();
+			}
+		}
+		return new String(bytes, start, num, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte readByte() throws IOException {
+		byte value;
+		if (replaying) {
+			verifyRemaining(byteIndex, byteCount, 1);
+			value = bytes[byteIndex++];
+		} else {
+			value = reader.readByte();
+			ensureBytes(1);
+			bytes[byteCount++] = value;
+		}
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readInt() throws IOException {
+		int value;
+		if (replaying) {
+			verifyRemaining(intIndex, intCount, 1);
+			value = ints[intIndex++];
+		} else {
+			value = reader.readInt();
+			if (intCount == ints.length) {
+				ints = Arrays.copyOf(ints, ints.length * 2);
+			}
+			ints[intCount++] = value;
+		}
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long readUnsignedInt() throws IOException {
+		int intValue = readInt();
+		long value = intValue & 0xffffffffL;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double readDouble() throws IOException {
+		double value;
+		if (replaying) {
+			verifyRemaining(doubleIndex, doubleCount, 1);
+			value = doubles[doubleIndex++];
+		} else {
+			value = reader.readDouble();
+			ensureDoubles(1);
+			doubles[doubleCount++] = value;
+		}
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void readDoubles(double[] values, int offset, int length)
+			throws IOException {
+		if (replaying) {
+			verifyRemaining(doubleIndex, doubleCount, length);
+			System.arraycopy(doubles, doubleIndex, values, offset, length);
+			doubleIndex += length;
+		} else {
+			recordDoubles(length);
+			System.arraycopy(doubles, doubleCount - length, values, offset,
+					length);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void skip(long num) throws IOException {
+		if (num % 8 != 0 || num / 8 > Integer.MAX_VALUE) {
+			throw new IOException(
+					"Only whole double values are skipped. Bytes: " + num);
+		}
+		int length = (int) (num / 8);
+		if (replaying) {
+			verifyRemaining(doubleIndex, doubleCount, length);
+			doubleIndex += length;
+		} else {
+			recordDoubles(length);
+		}
+	}
+
+	/**
+	 * Record double values from the byte reader, in a single bulk copy when
+	 * supported
+	 * 
+	 * @param length
+	 *            number of values
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void recordDoubles(int length) throws IOException {
+		ensureDoubles(length);
+		if (reader instanceof BulkByteReader) {
+			((BulkByteReader) reader).readDoubles(doubles, doubleCount,
+					length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				doubles[doubleCount + i] = reader.readDouble();
+			}
+		}
+		doubleCount += length;
+	}
+
+	/**
+	 * Ensure capacity to record more byte values
+	 * 
+	 * @param length
+	 *            number of values to record
+	 */
+	private void ensureBytes(int length) {
+		if (length > bytes.length - byteCount) {
+			bytes = Arrays.copyOf(bytes,
+					Math.max(bytes.length * 2, byteCount + length));
+		}
+	}
+
+	/**
+	 * Ensure capacity to record more double values
+	 * 
+	 * @param length
+	 *            number of values to record
+	 */
+	private void ensureDoubles(int length) {
+		if (length > doubles.length - doubleCount) {
+			doubles = Arrays.copyOf(doubles, Math.max(doubles.length * 2,
+					doubleCount + length));
+		}
+	}
+
+	/**
+	 * Verify enough recorded values remain to replay
+	 * 
+	 * @param index
+	 *            index of the next replayed value
+	 * @param count
+	 *            number of recorded values
+	 * @param length
+	 *            number of values to replay
+	 * @throws IOException
+	 *             upon not enough recorded values
+	 */
+	private static void verifyRemaining(int index, int count, int length)
+			throws IOException {
+		if (length > count - index) {
+			throw new IOException(
+					"No more recorded values to replay. Recorded Values: "
+							+ count + ", Values already replayed: " + index
+							+ ", Attempted to replay: " + length);
+		}
+	}
+
+}
@@ -0,0 +1,25 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+/**
+ * Byte Reader able to return to previously read bytes, such as to scan a
+ * geometry before deciding whether to read it
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public interface SeekableByteReader extends SkippableByteReader {
+
+	/**
+	 * Set the next byte to read
+	 * 
+	 * @param nextByte
+	 *            next byte index, relative to the first readable byte as
+	 *            returned by {@link mil.nga.sf.util.ByteReader#getNextByte()}
+	 * @throws IOException
+	 *             upon a next byte outside of the readable bytes
+	 */
+	public void seek(int nextByte) throws IOException;
+
+}
@@ -0,0 +1,23 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+/**
+ * Byte Reader able to advance past bytes without decoding them
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public interface SkippableByteReader {
+
+	/**
+	 * Skip bytes without reading them
+	 * 
+	 * @param num
+	 *            non-negative number of bytes to skip
+	 * @throws IOException
+	 *             upon not enough remaining bytes
+	 */
+	public void skip(long num) throws IOException;
+
+}
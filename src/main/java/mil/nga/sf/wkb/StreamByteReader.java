@@ -0,0 +1,263 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Byte Reader over an input stream or readable byte channel. Bytes are read
+ * incrementally through a small fixed size refill buffer so geometries are
+ * decoded without holding the complete well-known bytes in memory. The
+ * channel must be blocking. Bytes beyond the last read geometry may be
+ * buffered, so consecutive geometries should be read through the same
+ * reader.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class StreamByteReader extends ByteReader
+		implements SkippableByteReader {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger logger = Logger
+			.getLogger(StreamByteReader.class.getName());
+
+	/**
+	 * Default refill buffer size
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * Minimum refill buffer size, the size of the largest value read
+	 */
+	public static final int MIN_BUFFER_SIZE = 8;
+
+	/**
+	 * Empty bytes for the byte array backed parent reader
+	 */
+	private static final byte[] EMPTY_BYTES = new byte[0];
+
+	/**
+	 * Channel to read from
+	 */
+	private final ReadableByteChannel channel;
+
+	/**
+	 * Refill buffer, in read mode between refills
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Number of bytes read from the buffer
+	 */
+	private long bytesRead = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param inputStream
+	 *            input stream
+	 */
+	public StreamByteReader(InputStream inputStream) {
+		this(inputStream, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param inputStream
+	 *            input stream
+	 * @param bufferSize
+	 *            refill buffer size
+	 */
+	public StreamByteReader(InputStream inputStream, int bufferSize) {
+		this(Channels.newChannel(inputStream), bufferSize);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel
+	 *            readable byte channel
+	 */
+	public StreamByteReader(ReadableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel
+	 *            readable byte channel
+	 * @param bufferSize
+	 *            refill buffer size
+	 */
+	public StreamByteReader(ReadableByteChannel channel, int bufferSize) {
+		super(EMPTY_BYTES);
+		if (bufferSize < MIN_BUFFER_SIZE) {
+			throw new SFException("Buffer size of " + bufferSize
+					+ " is smaller than the minimum of " + MIN_BUFFER_SIZE);
+		}
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(bufferSize);
+		this.buffer.order(ByteOrder.BIG_ENDIAN);
+		this.buffer.flip();
+	}
+
+	/**
+	 * Get the number of bytes read
+	 * 
+	 * @return bytes read
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNextByte() {
+		return (int) bytesRead;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ByteOrder getByteOrder() {
+		return buffer.order();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteOrder(ByteOrder byteOrder) {
+		buffer.order(byteOrder);
+	}
+
+	/**
+	 * Close the byte reader and the underlying channel
+	 */
+	@Override
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed to close the channel", e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void skip(long num) throws IOException {
+		long remaining = num;
+		while (remaining > 0) {
+			int length = (int) Math.min(remaining, buffer.capacity());
+			fill(length);
+			buffer.position(buffer.position() + length);
+			remaining -= length;
+			bytesRead += length;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String readString(int num) throws IOException {
+		byte[] bytes = new byte[num];
+		int offset = 0;
+		while (offset < num) {
+			int length = Math.min(num - offset, buffer.capacity());
+			fill(length);
+			buffer.get(bytes, offset, length);
+			offset += length;
+			bytesRead += length;
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte readByte() throws IOException {
+		fill(1);
+		bytesRead++;
+		return buffer.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readInt() throws IOException {
+		fill(4);
+		bytesRead += 4;
+		return buffer.getInt();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long readUnsignedInt() throws IOException {
+		int intValue = readInt();
+		long value = intValue & 0xffffffffL;
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double readDouble() throws IOException {
+		fill(8);
+		bytesRead += 8;
+		return buffer.getDouble();
+	}
+
+	/**
+	 * Refill the buffer from the channel until the number of bytes are
+	 * available to read
+	 * 
+	 * @param bytesToRead
+	 *            number of bytes to read, no larger than the buffer capacity
+	 * @throws IOException
+	 *             upon failure to read or end of stream
+	 */
+	private void fill(int bytesToRead) throws IOException {
+		if (buffer.remaining() < bytesToRead) {
+			buffer.compact();
+			try {
+				while (buffer.position() < bytesToRead) {
+					if (channel.read(buffer) < 0) {
+						throw new IOException(
+								"No more remaining bytes to read. Bytes already read: "
+										+ bytesRead + ", Attempted to read: "
+										+ bytesToRead + ", Available: "
+										+ buffer.position());
+					}
+				}
+			} finally {
+				buffer.flip();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,358 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Byte Writer to an output stream or writable byte channel. Bytes are written
+ * incrementally through a small fixed size buffer so geometries are encoded
+ * without holding the complete well-known bytes in memory. The channel must
+ * be blocking. Buffered bytes are written when the buffer fills, on
+ * {@link #flush()}, and on {@link #close()}. The written bytes are not
+ * retained and are not available from {@link #getBytes()}.
+ * 
+ * @author osbornb
+ * @since 2.0.5
+ */
+public class StreamByteWriter extends ByteWriter implements BulkByteWriter {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger logger = Logger
+			.getLogger(StreamByteWriter.class.getName());
+
+	/**
+	 * Default buffer size
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * Minimum buffer size, the size of the largest value written
+	 */
+	public static final int MIN_BUFFER_SIZE = 8;
+
+	/**
+	 * Output stream flushed after the buffer, null when writing to a channel
+	 */
+	private final OutputStream outputStream;
+
+	/**
+	 * Channel to write to
+	 */
+	private final WritableByteChannel channel;
+
+	/**
+	 * Buffer, in write mode between flushes
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Number of bytes written to the buffer
+	 */
+	private long bytesWritten = 0;
+
+	/**
+	 * Double views of the buffer for bulk copies
+	 */
+	private final DoubleViews views = new DoubleViews();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 */
+	public StreamByteWriter(OutputStream outputStream) {
+		this(outputStream, DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public StreamByteWriter(OutputStream outputStream, ByteOrder byteOrder) {
+		this(outputStream, byteOrder, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 * @param byteOrder
+	 *            byte order
+	 * @param bufferSize
+	 *            buffer size
+	 */
+	public StreamByteWriter(OutputStream outputStream, ByteOrder byteOrder,
+			int bufferSize) {
+		this(outputStream, Channels.newChannel(outputStream), byteOrder,
+				bufferSize);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel
+	 *            writable byte channel
+	 */
+	public StreamByteWriter(WritableByteChannel channel) {
+		this(channel, DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel
+	 *            writable byte channel
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public StreamByteWriter(WritableByteChannel channel, ByteOrder byteOrder) {
+		this(channel, byteOrder, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel
+	 *            writable byte channel
+	 * @param byteOrder
+	 *            byte order
+	 * @param bufferSize
+	 *            buffer size
+	 */
+	public StreamByteWriter(WritableByteChannel channel, ByteOrder byteOrder,
+			int bufferSize) {
+		this(null, channel, byteOrder, bufferSize);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param outputStream
+	 *            output stream or null
+	 * @param channel
+	 *            writable byte channel
+	 * @param byteOrder
+	 *            byte order
+	 * @param bufferSize
+	 *            buffer size
+	 */
+	private StreamByteWriter(OutputStream outputStream,
+			WritableByteChannel channel, ByteOrder byteOrder,
+			int bufferSize) {
+		super(byteOrder);
+		if (bufferSize < MIN_BUFFER_SIZE) {
+			throw new SFException("Buffer size of " + bufferSize
+					+ " is smaller than the minimum of " + MIN_BUFFER_SIZE);
+		}
+		this.outputStream = outputStream;
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(bufferSize);
+		this.buffer.order(byteOrder);
+		views.reset(this.buffer);
+	}
+
+	/**
+	 * Get the number of bytes written
+	 * 
+	 * @return bytes written
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ByteOrder getByteOrder() {
+		return buffer.order();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteOrder(ByteOrder byteOrder) {
+		super.setByteOrder(byteOrder);
+		if (buffer != null) {
+			buffer.order(byteOrder);
+		}
+	}
+
+	/**
+	 * Written bytes are not retained by a stream writer
+	 * 
+	 * @throws SFException
+	 *             always
+	 */
+	@Override
+	public byte[] getBytes() {
+		throw new SFException(
+				"Stream byte writers do not retain the written bytes");
+	}
+
+	/**
+	 * Get the number of bytes written. Streams may exceed the range of an int,
+	 * use {@link #getBytesWritten()} for the full count.
+	 * 
+	 * @return bytes written
+	 * @throws SFException
+	 *             if more than {@link Integer#MAX_VALUE} bytes were written
+	 */
+	@Override
+	public int size() {
+		if (bytesWritten > Integer.MAX_VALUE) {
+			throw new SFException("Bytes written of " + bytesWritten
+					+ " exceeds the int size range, use getBytesWritten()");
+		}
+		return (int) bytesWritten;
+	}
+
+	/**
+	 * Write the buffered bytes to the channel, and flush the output stream
+	 * when writing to a stream
+	 * 
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void flush() throws IOException {
+		drain();
+		if (outputStream != null) {
+			outputStream.flush();
+		}
+	}
+
+	/**
+	 * Flush the buffered bytes and close the underlying channel. Call
+	 * {@link #flush()} first to be notified of write failures.
+	 */
+	@Override
+	public void close() {
+		try {
+			drain();
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed to flush the buffered bytes",
+					e);
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed to close the channel", e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeString(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int offset = 0;
+		while (offset < bytes.length) {
+			int length = Math.min(bytes.length - offset, buffer.capacity());
+			reserve(length);
+			buffer.put(bytes, offset, length);
+			offset += length;
+			bytesWritten += length;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeByte(byte value) throws IOException {
+		reserve(1);
+		buffer.put(value);
+		bytesWritten++;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeInt(int value) throws IOException {
+		reserve(4);
+		buffer.putInt(value);
+		bytesWritten += 4;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeDouble(double value) throws IOException {
+		reserve(8);
+		buffer.putDouble(value);
+		bytesWritten += 8;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeDoubles(double[] values, int offset, int length)
+			throws IOException {
+		int written = 0;
+		while (written < length) {
+			reserve(8);
+			int count = Math.min(length - written, buffer.remaining() / 8);
+			views.get(buffer.position(), buffer.order()).put(values,
+					offset + written, count);
+			buffer.position(buffer.position() + 8 * count);
+			written += count;
+			bytesWritten += 8L * count;
+		}
+	}
+
+	/**
+	 * Drain the buffer to the channel when there is not enough room for the
+	 * number of bytes
+	 * 
+	 * @param bytesToWrite
+	 *            number of bytes to write, no larger than the buffer capacity
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void reserve(int bytesToWrite) throws IOException {
+		if (buffer.remaining() < bytesToWrite) {
+			drain();
+		}
+	}
+
+	/**
+	 * Write all buffered bytes to the channel
+	 * 
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void drain() throws IOException {
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			buffer.compact();
+		}
+	}
+
+}
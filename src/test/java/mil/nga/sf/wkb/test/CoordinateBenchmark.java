@@ -0,0 +1,168 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.wkb.ByteArrayReader;
+import mil.nga.sf.wkb.ByteArrayWriter;
+import mil.nga.sf.wkb.GeometryReader;
+import mil.nga.sf.wkb.GeometryWriter;
+import mil.nga.sf.wkb.PackedGeometry;
+
+/**
+ * JMH comparison of per value and bulk coordinate reading and writing of a
+ * large line string, in the native and swapped byte orders. Both use the
+ * byte array reader and writer, with bulk copies turned off for the per
+ * value benchmarks, so only the coordinate copies differ. Run after
+ * compiling the test classes:
+ * 
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main CoordinateBenchmark
+ * </pre>
+ * 
+ * @author osbornb
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateBenchmark {
+
+	/**
+	 * Byte order, native or swapped
+	 */
+	@Param({ "NATIVE", "SWAPPED" })
+	public String order;
+
+	/**
+	 * Number of line string points
+	 */
+	@Param({ "1000", "100000" })
+	public int numPoints;
+
+	/**
+	 * Line string
+	 */
+	private LineString lineString;
+
+	/**
+	 * Line string bytes
+	 */
+	private byte[] bytes;
+
+	/**
+	 * Byte order
+	 */
+	private ByteOrder byteOrder;
+
+	/**
+	 * Create the line string and bytes
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Setup
+	public void setup() throws IOException {
+		byteOrder = ByteOrder.nativeOrder();
+		if (order.equals("SWAPPED")) {
+			byteOrder = byteOrder == ByteOrder.BIG_ENDIAN
+					? ByteOrder.LITTLE_ENDIAN
+					: ByteOrder.BIG_ENDIAN;
+		}
+		lineString = new LineString(true, false);
+		for (int i = 0; i < numPoints; i++) {
+			lineString.addPoint(new Point(Math.random() * 360 - 180,
+					Math.random() * 180 - 90, Math.random() * 1000));
+		}
+		bytes = GeometryWriter.writeGeometry(lineString, byteOrder);
+	}
+
+	/**
+	 * Read the line string one value at a time
+	 * 
+	 * @return geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Benchmark
+	public Geometry readPerValue() throws IOException {
+		ByteArrayReader reader = new ByteArrayReader(bytes);
+		reader.setBulkCopy(false);
+		return GeometryReader.readGeometry(reader);
+	}
+
+	/**
+	 * Read the line string with bulk coordinate copies
+	 * 
+	 * @return geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Benchmark
+	public Geometry readBulk() throws IOException {
+		return GeometryReader.readGeometry(new ByteArrayReader(bytes));
+	}
+
+	/**
+	 * Read the packed line string with bulk coordinate copies
+	 * 
+	 * @return packed geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Benchmark
+	public PackedGeometry readPackedBulk() throws IOException {
+		return GeometryReader.readPackedGeometry(bytes);
+	}
+
+	/**
+	 * Write the line string one value at a time
+	 * 
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Benchmark
+	public byte[] writePerValue() throws IOException {
+		byte[] written = new byte[bytes.length];
+		ByteArrayWriter writer = new ByteArrayWriter(written, byteOrder);
+		writer.setBulkCopy(false);
+		GeometryWriter.writeGeometry(writer, lineString);
+		return written;
+	}
+
+	/**
+	 * Write the line string with bulk coordinate copies
+	 * 
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Benchmark
+	public byte[] writeBulk() throws IOException {
+		byte[] written = new byte[bytes.length];
+		GeometryWriter.writeGeometry(new ByteArrayWriter(written, byteOrder),
+				lineString);
+		return written;
+	}
+
+}
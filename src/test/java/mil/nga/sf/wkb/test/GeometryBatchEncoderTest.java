@@ -0,0 +1,129 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.wkb.GeometryBatch;
+import mil.nga.sf.wkb.GeometryBatchEncoder;
+
+/**
+ * Test Geometry Batch Encoder
+ * 
+ * @author osbornb
+ */
+public class GeometryBatchEncoderTest {
+
+	/**
+	 * Test encoding a batch in a single allocation
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testEncode() throws IOException {
+
+		List<Geometry> geometries = createGeometries();
+
+		GeometryBatch batch = GeometryBatchEncoder.encode(geometries,
+				ByteOrder.LITTLE_ENDIAN);
+		compareBatch(geometries, ByteOrder.LITTLE_ENDIAN, batch);
+		TestCase.assertEquals(batch.getDataLength(), batch.getData().length);
+
+	}
+
+	/**
+	 * Test adding geometries to a reused encoder
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testAdd() throws IOException {
+
+		GeometryBatchEncoder encoder = new GeometryBatchEncoder(
+				ByteOrder.BIG_ENDIAN, 8);
+
+		for (int i = 0; i < 2; i++) {
+			List<Geometry> geometries = createGeometries();
+			for (Geometry geometry : geometries) {
+				encoder.add(geometry);
+			}
+			TestCase.assertEquals(geometries.size(), encoder.size());
+			GeometryBatch batch = encoder.build();
+			compareBatch(geometries, ByteOrder.BIG_ENDIAN, batch);
+			TestCase.assertEquals(encoder.getDataLength(),
+					batch.getData().length);
+			encoder.reset();
+			TestCase.assertEquals(0, encoder.size());
+		}
+
+	}
+
+	/**
+	 * Create test geometries with a null geometry
+	 * 
+	 * @return geometries
+	 */
+	private static List<Geometry> createGeometries() {
+		List<Geometry> geometries = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			switch (i % 4) {
+			case 0:
+				geometries.add(WKBTestUtils.createPoint(hasZ, hasM));
+				break;
+			case 1:
+				geometries.add(WKBTestUtils.createLineString(hasZ, hasM));
+				break;
+			case 2:
+				geometries.add(WKBTestUtils.createMultiPolygon(hasZ, hasM));
+				break;
+			default:
+				geometries.add(null);
+			}
+		}
+		return geometries;
+	}
+
+	/**
+	 * Compare the batch to the geometries
+	 * 
+	 * @param geometries
+	 *            geometries
+	 * @param byteOrder
+	 *            byte order
+	 * @param batch
+	 *            geometry batch
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static void compareBatch(List<Geometry> geometries,
+			ByteOrder byteOrder, GeometryBatch batch) throws IOException {
+		TestCase.assertEquals(geometries.size(), batch.size());
+		TestCase.assertEquals(geometries.size() + 1,
+				batch.getOffsets().length);
+		TestCase.assertEquals(0, batch.getOffset(0));
+		for (int i = 0; i < geometries.size(); i++) {
+			Geometry geometry = geometries.get(i);
+			if (geometry == null) {
+				TestCase.assertEquals(0, batch.getLength(i));
+				TestCase.assertNull(batch.getBytes(i));
+				TestCase.assertNull(batch.read(i));
+			} else {
+				TestCase.assertTrue(
+						Arrays.equals(WKBTestUtils.writeBytes(geometry,
+								byteOrder), batch.getBytes(i)));
+				WKBTestUtils.compareGeometries(geometry, batch.read(i));
+			}
+		}
+	}
+
+}
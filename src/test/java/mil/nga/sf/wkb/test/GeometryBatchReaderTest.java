@@ -0,0 +1,372 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.Curve;
+import mil.nga.sf.CurvePolygon;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.TIN;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.Triangle;
+import mil.nga.sf.wkb.GeometryBatchReader;
+import mil.nga.sf.wkb.GeometryEnvelopeFilter;
+import mil.nga.sf.wkb.GeometryReader;
+import mil.nga.sf.wkb.GeometryTypesFilter;
+
+/**
+ * Test reading batches of Well Known Binary geometries in parallel
+ * 
+ * @author osbornb
+ */
+public class GeometryBatchReaderTest {
+
+	/**
+	 * Number of geometries in a batch
+	 */
+	private static final int BATCH_SIZE = 1000;
+
+	/**
+	 * Test reading a list of geometry bytes
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadList() throws IOException {
+
+		List<Geometry> geometries = createGeometries();
+		List<byte[]> geometryBytes = new ArrayList<>();
+		for (int i = 0; i < geometries.size(); i++) {
+			geometryBytes.add(WKBTestUtils.writeBytes(geometries.get(i),
+					i % 2 == 0 ? ByteOrder.BIG_ENDIAN
+							: ByteOrder.LITTLE_ENDIAN));
+		}
+
+		GeometryBatchReader reader = new GeometryBatchReader(4);
+		try {
+			reader.setSequentialThreshold(16);
+			compareGeometries(geometries, reader.read(geometryBytes));
+
+			// Small batches read sequentially
+			reader.setSequentialThreshold(BATCH_SIZE);
+			compareGeometries(geometries, reader.read(geometryBytes));
+		} finally {
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Test reading a data array with offsets
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadOffsets() throws IOException {
+
+		List<Geometry> geometries = createGeometries();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		int[] offsets = new int[geometries.size() + 1];
+		for (int i = 0; i < geometries.size(); i++) {
+			offsets[i] = outputStream.size();
+			outputStream.write(WKBTestUtils.writeBytes(geometries.get(i)));
+		}
+		offsets[geometries.size()] = outputStream.size();
+		byte[] data = outputStream.toByteArray();
+
+		GeometryBatchReader reader = new GeometryBatchReader();
+		reader.setSequentialThreshold(32);
+		compareGeometries(geometries, reader.read(data, offsets));
+
+		// Read failures are thrown with the geometry index
+		offsets[BATCH_SIZE / 2 + 1] = offsets[BATCH_SIZE / 2] + 1;
+		try {
+			reader.read(data, Arrays.copyOf(offsets, BATCH_SIZE / 2 + 2));
+			TestCase.fail("Expected read failure");
+		} catch (IOException e) {
+			TestCase.assertTrue(e.getMessage()
+					.contains(String.valueOf(BATCH_SIZE / 2)));
+		}
+
+	}
+
+	/**
+	 * Test reading the members of a single collection geometry in parallel
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadCollection() throws IOException {
+
+		MultiPolygon multiPolygon = new MultiPolygon(false, true);
+		GeometryCollection<Geometry> geometryCollection = new GeometryCollection<>(
+				false, false);
+		GeometryCollection<Geometry> lineStrings = new GeometryCollection<>(
+				false, false);
+		for (int i = 0; i < BATCH_SIZE / 4; i++) {
+			multiPolygon.addPolygon(WKBTestUtils.createPolygon(false, true));
+			LineString lineString = WKBTestUtils.createLineString(false,
+					false);
+			geometryCollection.addGeometry(lineString);
+			geometryCollection.addGeometry(
+					WKBTestUtils.createMultiPoint(false, false));
+			lineStrings.addGeometry(lineString);
+		}
+
+		GeometryBatchReader reader = new GeometryBatchReader(4);
+		try {
+			reader.setSequentialBytes(256);
+
+			WKBTestUtils.compareGeometries(multiPolygon,
+					reader.readGeometry(WKBTestUtils.writeBytes(multiPolygon,
+							ByteOrder.LITTLE_ENDIAN)));
+
+			byte[] bytes = WKBTestUtils.writeBytes(geometryCollection);
+			WKBTestUtils.compareGeometries(geometryCollection,
+					reader.readGeometry(bytes));
+			WKBTestUtils.compareGeometries(lineStrings,
+					reader.readGeometry(bytes,
+							new GeometryTypesFilter(
+									GeometryType.GEOMETRYCOLLECTION,
+									GeometryType.LINESTRING)));
+
+			// Non collection geometries are read sequentially
+			LineString lineString = WKBTestUtils.createLineString(true,
+					false);
+			WKBTestUtils.compareGeometries(lineString, reader
+					.readGeometry(WKBTestUtils.writeBytes(lineString)));
+		} finally {
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Test reading the triangle and polygon members of a TIN in parallel the
+	 * same as read sequentially
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadTIN() throws IOException {
+
+		boolean hasZ = WKBTestUtils.coinFlip();
+		boolean hasM = WKBTestUtils.coinFlip();
+		TIN tin = new TIN(hasZ, hasM);
+		for (int i = 0; i < BATCH_SIZE / 4; i++) {
+			tin.addPolygon(WKBTestUtils.createTriangle(hasZ, hasM));
+		}
+		byte[] bytes = WKBTestUtils.writeBytes(tin);
+
+		GeometryBatchReader reader = new GeometryBatchReader(4);
+		try {
+			reader.setSequentialBytes(256);
+
+			TIN sequential = GeometryReader.readGeometry(bytes, TIN.class);
+			Geometry parallel = reader.readGeometry(bytes);
+			TestCase.assertTrue(parallel instanceof TIN);
+			WKBTestUtils.compareGeometries(sequential, parallel);
+			for (int i = 0; i < sequential.numPolygons(); i++) {
+				TestCase.assertEquals(Triangle.class,
+						sequential.getPolygon(i).getClass());
+				TestCase.assertEquals(
+						sequential.getPolygon(i).getClass(),
+						((TIN) parallel).getPolygon(i).getClass());
+			}
+
+			// Polygon members are read the same by both paths
+			for (int i = 0; i < BATCH_SIZE / 4; i++) {
+				tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			}
+			bytes = WKBTestUtils.writeBytes(tin);
+			sequential = GeometryReader.readGeometry(bytes, TIN.class);
+			parallel = reader.readGeometry(bytes);
+			TestCase.assertTrue(parallel instanceof TIN);
+			WKBTestUtils.compareGeometries(tin, sequential);
+			WKBTestUtils.compareGeometries(sequential, parallel);
+			for (int i = 0; i < sequential.numPolygons(); i++) {
+				TestCase.assertEquals(
+						sequential.getPolygon(i).getClass(),
+						((TIN) parallel).getPolygon(i).getClass());
+			}
+		} finally {
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Test reading the members of compound curves and curve polygons in
+	 * parallel
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadCurveMembers() throws IOException {
+
+		boolean hasZ = WKBTestUtils.coinFlip();
+		boolean hasM = WKBTestUtils.coinFlip();
+		CompoundCurve compoundCurve = new CompoundCurve(hasZ, hasM);
+		CurvePolygon<Curve> curvePolygon = new CurvePolygon<Curve>(hasZ,
+				hasM);
+		for (int i = 0; i < BATCH_SIZE / 4; i++) {
+			compoundCurve.addLineString(
+					WKBTestUtils.createLineString(hasZ, hasM, true));
+			curvePolygon.addRing(
+					WKBTestUtils.createLineString(hasZ, hasM, true));
+		}
+
+		GeometryBatchReader reader = new GeometryBatchReader(4);
+		try {
+			reader.setSequentialBytes(256);
+
+			for (Geometry geometry : Arrays.asList(compoundCurve,
+					curvePolygon)) {
+				byte[] bytes = WKBTestUtils.writeBytes(geometry);
+				Geometry sequential = GeometryReader.readGeometry(bytes);
+				Geometry parallel = reader.readGeometry(bytes);
+				TestCase.assertEquals(sequential.getClass(),
+						parallel.getClass());
+				WKBTestUtils.compareGeometries(sequential, parallel);
+			}
+
+			// Disjoint curve polygon holes are pruned by both paths
+			GeometryEnvelopeFilter filter = new GeometryEnvelopeFilter(
+					new GeometryEnvelope(-90.0, -45.0, 90.0, 45.0));
+			byte[] bytes = WKBTestUtils.writeBytes(curvePolygon);
+			Geometry sequential = GeometryReader.readGeometry(bytes, filter);
+			Geometry parallel = reader.readGeometry(bytes, filter);
+			TestCase.assertEquals(sequential == null, parallel == null);
+			if (sequential != null) {
+				TestCase.assertEquals(
+						((CurvePolygon<?>) sequential).numRings(),
+						((CurvePolygon<?>) parallel).numRings());
+				WKBTestUtils.compareGeometries(sequential, parallel);
+			}
+		} finally {
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Test reading a collection of a few large members in parallel, split by
+	 * member bytes
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadLargeMembers() throws IOException {
+
+		MultiPolygon multiPolygon = new MultiPolygon(false, false);
+		for (int i = 0; i < 3; i++) {
+			LineString ring = new LineString(false, false);
+			for (int j = 0; j < BATCH_SIZE * (i + 1); j++) {
+				ring.addPoint(WKBTestUtils.createPoint(false, false));
+			}
+			ring.addPoint(ring.getPoints().get(0));
+			Polygon polygon = new Polygon(false, false);
+			polygon.addRing(ring);
+			multiPolygon.addPolygon(polygon);
+		}
+		byte[] bytes = WKBTestUtils.writeBytes(multiPolygon);
+
+		GeometryBatchReader reader = new GeometryBatchReader(4);
+		try {
+			TestCase.assertTrue(multiPolygon.numPolygons() <= reader
+					.getSequentialThreshold());
+			reader.setSequentialBytes(BATCH_SIZE);
+			WKBTestUtils.compareGeometries(multiPolygon,
+					reader.readGeometry(bytes));
+		} finally {
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Test rejecting corrupt collection member counts before locating the
+	 * members
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testInvalidMemberCount() throws IOException {
+
+		MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(
+				WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+		byte[] bytes = WKBTestUtils.writeBytes(multiPolygon,
+				ByteOrder.BIG_ENDIAN);
+
+		GeometryBatchReader reader = new GeometryBatchReader(4);
+		try {
+			for (int count : new int[] { -1, Integer.MIN_VALUE,
+					Integer.MAX_VALUE, bytes.length }) {
+				ByteBuffer.wrap(bytes, 5, 4).putInt(count);
+				try {
+					reader.readGeometry(bytes);
+					TestCase.fail("Invalid member count did not fail: "
+							+ count);
+				} catch (SFException e) {
+					// expected
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Create random geometries
+	 * 
+	 * @return geometries
+	 */
+	private List<Geometry> createGeometries() {
+		List<Geometry> geometries = new ArrayList<>();
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			geometries.add(WKBTestUtils.createLineString(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip()));
+		}
+		return geometries;
+	}
+
+	/**
+	 * Compare the expected and read geometries in order
+	 * 
+	 * @param expected
+	 *            expected geometries
+	 * @param actual
+	 *            read geometries
+	 */
+	private void compareGeometries(List<Geometry> expected,
+			List<Geometry> actual) {
+		TestCase.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			WKBTestUtils.compareGeometries(expected.get(i), actual.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.wkb.GeometryBatch;
+import mil.nga.sf.wkb.GeometryBatchWriter;
+import mil.nga.sf.wkb.GeometryWriter;
+
+/**
+ * Test Geometry Batch Writer
+ * 
+ * @author osbornb
+ */
+public class GeometryBatchWriterTest {
+
+	/**
+	 * Test writing the members of large collections in parallel
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testWriteCollection() throws IOException {
+
+		boolean hasZ = WKBTestUtils.coinFlip();
+		boolean hasM = WKBTestUtils.coinFlip();
+
+		MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
+		GeometryCollection<Geometry> geometryCollection = new GeometryCollection<>(
+				hasZ, hasM);
+		CompoundCurve compoundCurve = new CompoundCurve(hasZ, hasM);
+		Polygon polygon = new Polygon(hasZ, hasM);
+		for (int i = 0; i < 100; i++) {
+			polygon.addRing(WKBTestUtils.createLineString(hasZ, hasM, true));
+			multiPolygon.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			geometryCollection
+					.addGeometry(WKBTestUtils.createLineString(hasZ, hasM));
+			geometryCollection
+					.addGeometry(WKBTestUtils.createPoint(hasZ, hasM));
+			compoundCurve.addLineString(
+					WKBTestUtils.createLineString(hasZ, hasM));
+		}
+
+		GeometryBatchWriter writer = new GeometryBatchWriter(4);
+		writer.setSequentialBytes(256);
+		try {
+			for (Geometry geometry : new Geometry[] { multiPolygon,
+					geometryCollection, compoundCurve, polygon }) {
+				for (ByteOrder byteOrder : new ByteOrder[] {
+						ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+					TestCase.assertTrue(Arrays.equals(
+							GeometryWriter.writeGeometry(geometry, byteOrder),
+							writer.writeGeometry(geometry, byteOrder)));
+				}
+			}
+		} finally {
+			writer.close();
+		}
+
+	}
+
+	/**
+	 * Test writing a collection of a few large members in parallel, split by
+	 * member bytes
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testWriteLargeMembers() throws IOException {
+
+		MultiPolygon multiPolygon = new MultiPolygon(false, false);
+		for (int i = 0; i < 3; i++) {
+			Polygon polygon = new Polygon(false, false);
+			for (int j = 0; j < 100 * (i + 1); j++) {
+				polygon.addRing(
+						WKBTestUtils.createLineString(false, false, true));
+			}
+			multiPolygon.addPolygon(polygon);
+		}
+
+		GeometryBatchWriter writer = new GeometryBatchWriter(4);
+		writer.setSequentialBytes(1000);
+		try {
+			TestCase.assertTrue(multiPolygon.numPolygons() <= writer
+					.getSequentialThreshold());
+			TestCase.assertTrue(Arrays.equals(
+					GeometryWriter.writeGeometry(multiPolygon),
+					writer.writeGeometry(multiPolygon)));
+		} finally {
+			writer.close();
+		}
+
+	}
+
+	/**
+	 * Test encoding a batch in parallel
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testEncode() throws IOException {
+
+		List<Geometry> geometries = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			geometries.add(i % 10 == 0 ? null
+					: WKBTestUtils.createMultiPolygon(WKBTestUtils.coinFlip(),
+							WKBTestUtils.coinFlip()));
+		}
+
+		GeometryBatchWriter writer = new GeometryBatchWriter(4);
+		writer.setSequentialThreshold(3);
+		try {
+			GeometryBatch batch = writer.encode(geometries,
+					ByteOrder.LITTLE_ENDIAN);
+			TestCase.assertEquals(geometries.size(), batch.size());
+			for (int i = 0; i < geometries.size(); i++) {
+				Geometry geometry = geometries.get(i);
+				if (geometry == null) {
+					TestCase.assertNull(batch.getBytes(i));
+				} else {
+					TestCase.assertTrue(Arrays.equals(
+							GeometryWriter.writeGeometry(geometry,
+									ByteOrder.LITTLE_ENDIAN),
+							batch.getBytes(i)));
+				}
+			}
+		} finally {
+			writer.close();
+		}
+
+	}
+
+}
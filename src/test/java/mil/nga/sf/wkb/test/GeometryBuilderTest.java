@@ -0,0 +1,278 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.TIN;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.wkb.GeometryBuilder;
+import mil.nga.sf.wkb.GeometryHandler;
+import mil.nga.sf.wkb.GeometryReader;
+import mil.nga.sf.wkb.StreamByteWriter;
+
+/**
+ * Test building Well Known Binary without geometry objects
+ * 
+ * @author osbornb
+ */
+public class GeometryBuilderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Test rebuilding each geometry type from parse events
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testBuild() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			buildTester(WKBTestUtils.createPoint(hasZ, hasM));
+			buildTester(WKBTestUtils.createLineString(hasZ, hasM));
+			buildTester(WKBTestUtils.createPolygon(hasZ, hasM));
+			buildTester(WKBTestUtils.createMultiPoint(hasZ, hasM));
+			buildTester(WKBTestUtils.createMultiLineString(hasZ, hasM));
+			buildTester(WKBTestUtils.createMultiPolygon(hasZ, hasM));
+			buildTester(WKBTestUtils.createGeometryCollection(hasZ, hasM));
+			buildTester(WKBTestUtils.createCompoundCurve(hasZ, hasM));
+			buildTester(WKBTestUtils.createCurvePolygon(hasZ, hasM));
+
+			TIN tin = new TIN(hasZ, hasM);
+			tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			buildTester(tin);
+		}
+
+	}
+
+	/**
+	 * Test building a polygon from coordinate arrays
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testCoordinates() throws IOException {
+
+		double[] coordinates = new double[] { 0, 0, 1, 10, 0, 2, 10, 10, 3,
+				0, 0, 1, 2, 2, 4, 4, 2, 5, 4, 4, 6, 2, 2, 4 };
+
+		Polygon polygon = new Polygon(true, false);
+		for (int ring = 0; ring < 2; ring++) {
+			LineString lineString = new LineString(true, false);
+			for (int point = 0; point < 4; point++) {
+				int index = (ring * 4 + point) * 3;
+				lineString.addPoint(new Point(coordinates[index],
+						coordinates[index + 1], coordinates[index + 2]));
+			}
+			polygon.addRing(lineString);
+		}
+
+		GeometryBuilder builder = new GeometryBuilder(
+				ByteOrder.LITTLE_ENDIAN);
+		builder.beginPolygon(2, true, false);
+		builder.ring(coordinates, 0, 4);
+		builder.beginRing(4);
+		builder.coordinate(2, 2, 4, Double.NaN);
+		builder.coordinates(coordinates, 15, 3);
+		builder.endRing();
+		builder.end();
+		TestCase.assertTrue(builder.isComplete());
+
+		TestCase.assertTrue(Arrays.equals(
+				WKBTestUtils.writeBytes(polygon, ByteOrder.LITTLE_ENDIAN),
+				builder.getBytes()));
+
+	}
+
+	/**
+	 * Test structure validation
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testValidation() throws IOException {
+
+		GeometryBuilder builder = new GeometryBuilder();
+		builder.beginLineString(2, false, false);
+		builder.coordinate(1, 2);
+		try {
+			builder.end();
+			TestCase.fail("Expected missing coordinate");
+		} catch (SFException e) {
+			// expected
+		}
+		builder.coordinate(3, 4);
+		try {
+			builder.coordinate(5, 6);
+			TestCase.fail("Expected extra coordinate");
+		} catch (SFException e) {
+			// expected
+		}
+		builder.end();
+
+		builder.beginMultiLineString(1, true, false);
+		try {
+			builder.beginPoint(true, false);
+			TestCase.fail("Expected invalid member");
+		} catch (SFException e) {
+			// expected
+		}
+		try {
+			builder.coordinate(1, 2, 3, Double.NaN);
+			TestCase.fail("Expected coordinate of a collection");
+		} catch (SFException e) {
+			// expected
+		}
+		builder.beginLineString(1, true, false);
+		try {
+			builder.coordinate(1, 2);
+			TestCase.fail("Expected missing z value");
+		} catch (SFException e) {
+			// expected
+		}
+		try {
+			builder.endRing();
+			TestCase.fail("Expected not a ring");
+		} catch (SFException e) {
+			// expected
+		}
+		try {
+			builder.beginRing(1);
+			TestCase.fail("Expected ring outside of a polygon");
+		} catch (SFException e) {
+			// expected
+		}
+		builder.coordinate(1, 2, 3, Double.NaN);
+		builder.end();
+		builder.end();
+		TestCase.assertTrue(builder.isComplete());
+
+		GeometryReader reader = new GeometryReader(builder.getBytes());
+		TestCase.assertEquals(GeometryType.LINESTRING,
+				reader.read().getGeometryType());
+		TestCase.assertEquals(GeometryType.MULTILINESTRING,
+				reader.read().getGeometryType());
+		reader.close();
+
+	}
+
+	/**
+	 * Test a failed nested geometry header write is not counted as a member
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testWriteFailure() throws IOException {
+
+		OutputStream outputStream = new OutputStream() {
+
+			private int bytes = 0;
+
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (bytes + len > 5) {
+					throw new IOException("Write failure");
+				}
+				bytes += len;
+			}
+
+		};
+
+		GeometryBuilder builder = new GeometryBuilder(new StreamByteWriter(
+				outputStream, ByteOrder.BIG_ENDIAN,
+				StreamByteWriter.MIN_BUFFER_SIZE));
+		builder.beginMultiPoint(1, false, false);
+		try {
+			builder.beginPoint(false, false);
+			TestCase.fail("Expected write failure");
+		} catch (IOException e) {
+			// expected
+		}
+		try {
+			builder.end();
+			TestCase.fail("Expected missing member");
+		} catch (SFException e) {
+			// expected
+		}
+		TestCase.assertFalse(builder.isComplete());
+
+	}
+
+	/**
+	 * Rebuild the geometry from its parse events and compare the bytes
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static void buildTester(Geometry geometry) throws IOException {
+
+		for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+				ByteOrder.LITTLE_ENDIAN }) {
+
+			byte[] bytes = WKBTestUtils.writeBytes(geometry, byteOrder);
+
+			final GeometryBuilder builder = new GeometryBuilder(byteOrder);
+			GeometryReader.parseGeometry(bytes, new GeometryHandler() {
+
+				@Override
+				public void beginGeometry(GeometryType geometryType,
+						boolean hasZ, boolean hasM, int count) {
+					try {
+						builder.begin(geometryType, count, hasZ, hasM);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+
+				@Override
+				public void coordinate(double x, double y, double z,
+						double m) {
+					try {
+						builder.coordinate(x, y, z, m);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+
+				@Override
+				public void endGeometry(GeometryType geometryType) {
+					builder.end();
+				}
+
+			});
+
+			TestCase.assertTrue(builder.isComplete());
+			TestCase.assertTrue(Arrays.equals(bytes, builder.getBytes()));
+		}
+
+	}
+
+}
@@ -0,0 +1,167 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.TIN;
+import mil.nga.sf.wkb.GeometryHandler;
+import mil.nga.sf.wkb.GeometryReader;
+import mil.nga.sf.wkb.PackedGeometry;
+
+/**
+ * Test parsing Well Known Binary with geometry handler events
+ * 
+ * @author osbornb
+ */
+public class GeometryHandlerTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Test parse events of each geometry type
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testParse() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			parseTester(WKBTestUtils.createPoint(hasZ, hasM));
+			parseTester(WKBTestUtils.createLineString(hasZ, hasM));
+			parseTester(WKBTestUtils.createPolygon(hasZ, hasM));
+			parseTester(WKBTestUtils.createMultiPoint(hasZ, hasM));
+			parseTester(WKBTestUtils.createMultiLineString(hasZ, hasM));
+			parseTester(WKBTestUtils.createMultiPolygon(hasZ, hasM));
+			parseTester(WKBTestUtils.createGeometryCollection(hasZ, hasM));
+			parseTester(WKBTestUtils.createCompoundCurve(hasZ, hasM));
+			parseTester(WKBTestUtils.createCurvePolygon(hasZ, hasM));
+
+			TIN tin = new TIN(hasZ, hasM);
+			tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			parseTester(tin);
+		}
+
+	}
+
+	/**
+	 * Test the parse events match the packed geometry structure
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void parseTester(Geometry geometry) throws IOException {
+
+		for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+				ByteOrder.LITTLE_ENDIAN }) {
+
+			byte[] bytes = WKBTestUtils.writeBytes(geometry, byteOrder);
+			PackedGeometry packed = GeometryReader.readPackedGeometry(bytes);
+
+			RecordingHandler handler = new RecordingHandler();
+			GeometryReader.parseGeometry(bytes, handler);
+
+			TestCase.assertTrue(handler.open.isEmpty());
+			TestCase.assertEquals(packed.numNodes(), handler.types.size());
+			for (int i = 0; i < packed.numNodes(); i++) {
+				TestCase.assertEquals(packed.getNodeType(i),
+						handler.types.get(i));
+				TestCase.assertEquals(packed.getNodeCount(i),
+						handler.counts.get(i).intValue());
+			}
+
+			double[] coordinates = packed.getCoordinates();
+			TestCase.assertEquals(coordinates.length,
+					handler.coordinates.size());
+			for (int i = 0; i < coordinates.length; i++) {
+				TestCase.assertEquals(coordinates[i],
+						handler.coordinates.get(i));
+			}
+		}
+
+	}
+
+	/**
+	 * Handler recording the parse events
+	 */
+	private static class RecordingHandler implements GeometryHandler {
+
+		/**
+		 * Begun geometry types
+		 */
+		private final List<GeometryType> types = new ArrayList<>();
+
+		/**
+		 * Begun geometry counts
+		 */
+		private final List<Integer> counts = new ArrayList<>();
+
+		/**
+		 * Interleaved coordinates in the present dimensions
+		 */
+		private final List<Double> coordinates = new ArrayList<>();
+
+		/**
+		 * Open geometry types, has z, and has m values
+		 */
+		private final Deque<Object[]> open = new ArrayDeque<>();
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void beginGeometry(GeometryType geometryType, boolean hasZ,
+				boolean hasM, int count) {
+			types.add(geometryType);
+			counts.add(count);
+			open.push(new Object[] { geometryType, hasZ, hasM });
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void coordinate(double x, double y, double z, double m) {
+			Object[] current = open.peek();
+			coordinates.add(x);
+			coordinates.add(y);
+			if ((Boolean) current[1]) {
+				coordinates.add(z);
+			} else {
+				TestCase.assertTrue(Double.isNaN(z));
+			}
+			if ((Boolean) current[2]) {
+				coordinates.add(m);
+			} else {
+				TestCase.assertTrue(Double.isNaN(m));
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void endGeometry(GeometryType geometryType) {
+			TestCase.assertEquals(open.pop()[0], geometryType);
+		}
+
+	}
+
+}
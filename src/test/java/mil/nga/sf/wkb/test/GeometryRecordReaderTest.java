@@ -0,0 +1,146 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.wkb.GeometryRecordReader;
+import mil.nga.sf.wkb.GeometryWriter;
+
+/**
+ * Test reading memory mapped Well Known Binary record files
+ * 
+ * @author osbornb
+ */
+public class GeometryRecordReaderTest {
+
+	/**
+	 * Number of records to write
+	 */
+	private static final int RECORDS = 200;
+
+	/**
+	 * Test reading records from a single mapped segment
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testSingleSegment() throws IOException {
+		recordTester(GeometryRecordReader.DEFAULT_MAX_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Test reading records split across many mapped segments
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testMultipleSegments() throws IOException {
+		recordTester(1024);
+	}
+
+	/**
+	 * Test a record larger than the maximum segment size
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testRecordLargerThanSegment() throws IOException {
+
+		List<Geometry> geometries = new ArrayList<>();
+		geometries.add(WKBTestUtils.createPoint(false, false));
+		File file = writeRecords(geometries);
+
+		try {
+			new GeometryRecordReader(file, ByteOrder.BIG_ENDIAN, 8).close();
+			TestCase.fail("Expected segment size failure");
+		} catch (IOException e) {
+			// expected
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Write records and verify reading them by index and iteration
+	 * 
+	 * @param maxSegmentSize
+	 *            maximum segment size
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void recordTester(int maxSegmentSize) throws IOException {
+
+		List<Geometry> geometries = new ArrayList<>();
+		for (int i = 0; i < RECORDS; i++) {
+			geometries.add(WKBTestUtils.createLineString(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip()));
+		}
+
+		File file = writeRecords(geometries);
+		try (GeometryRecordReader reader = new GeometryRecordReader(file,
+				ByteOrder.BIG_ENDIAN, maxSegmentSize)) {
+
+			// Iterate before any segments are indexed
+			int count = 0;
+			for (Geometry geometry : reader) {
+				WKBTestUtils.compareGeometries(geometries.get(count++),
+						geometry);
+			}
+			TestCase.assertEquals(RECORDS, count);
+
+			TestCase.assertEquals(RECORDS, reader.size());
+			if (maxSegmentSize < file.length()) {
+				TestCase.assertTrue(reader.numSegments() > 1);
+			} else {
+				TestCase.assertEquals(1, reader.numSegments());
+			}
+
+			for (int i = RECORDS - 1; i >= 0; i--) {
+				WKBTestUtils.compareGeometries(geometries.get(i),
+						reader.get(i));
+				TestCase.assertEquals(
+						GeometryWriter.writeGeometry(geometries.get(i)).length,
+						reader.getRecordLength(i));
+			}
+
+		} finally {
+			file.delete();
+		}
+
+	}
+
+	/**
+	 * Write the geometries to a temporary record file
+	 * 
+	 * @param geometries
+	 *            geometries
+	 * @return record file
+	 * @throws IOException
+	 *             upon error
+	 */
+	private File writeRecords(List<Geometry> geometries) throws IOException {
+		File file = File.createTempFile("records", ".wkb");
+		try (DataOutputStream out = new DataOutputStream(
+				new FileOutputStream(file))) {
+			for (Geometry geometry : geometries) {
+				byte[] bytes = GeometryWriter.writeGeometry(geometry);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+		return file;
+	}
+
+}
@@ -0,0 +1,164 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.wkb.GeometryReader;
+import mil.nga.sf.wkb.GeometrySpliterator;
+
+/**
+ * Test streaming back to back Well Known Binary geometries
+ * 
+ * @author osbornb
+ */
+public class GeometrySpliteratorTest {
+
+	/**
+	 * Number of geometries to stream
+	 */
+	private static final int GEOMETRY_COUNT = 500;
+
+	/**
+	 * Test streaming concatenated geometries
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testConcatenated() throws IOException {
+
+		List<Geometry> geometries = createGeometries();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		for (int i = 0; i < geometries.size(); i++) {
+			outputStream.write(WKBTestUtils.writeBytes(geometries.get(i),
+					i % 2 == 0 ? ByteOrder.BIG_ENDIAN
+							: ByteOrder.LITTLE_ENDIAN));
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(outputStream.toByteArray());
+
+		compareGeometries(geometries, GeometryReader.stream(buffer)
+				.collect(Collectors.toList()));
+		compareGeometries(geometries, GeometryReader.stream(buffer)
+				.parallel().collect(Collectors.toList()));
+
+		// Splits are sized after indexing
+		Spliterator<Geometry> suffix = new GeometrySpliterator(buffer);
+		Spliterator<Geometry> prefix = suffix.trySplit();
+		TestCase.assertTrue(suffix.hasCharacteristics(Spliterator.SIZED));
+		TestCase.assertEquals(GEOMETRY_COUNT,
+				prefix.estimateSize() + suffix.estimateSize());
+		List<Geometry> split = new ArrayList<>();
+		prefix.forEachRemaining(split::add);
+		suffix.forEachRemaining(split::add);
+		compareGeometries(geometries, split);
+
+	}
+
+	/**
+	 * Test streaming length prefixed geometry records
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testRecords() throws IOException {
+
+		List<Geometry> geometries = createGeometries();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		for (Geometry geometry : geometries) {
+			byte[] bytes = WKBTestUtils.writeBytes(geometry);
+			outputStream.write(ByteBuffer.allocate(4)
+					.order(ByteOrder.LITTLE_ENDIAN).putInt(bytes.length)
+					.array());
+			outputStream.write(bytes);
+		}
+		ByteBuffer buffer = ByteBuffer
+				.allocateDirect(outputStream.size() + 10);
+		buffer.position(5);
+		buffer.put(outputStream.toByteArray());
+		buffer.flip();
+		buffer.position(5);
+
+		compareGeometries(geometries,
+				GeometryReader.streamRecords(buffer, ByteOrder.LITTLE_ENDIAN)
+						.collect(Collectors.toList()));
+		compareGeometries(geometries,
+				GeometryReader.streamRecords(buffer, ByteOrder.LITTLE_ENDIAN)
+						.parallel().collect(Collectors.toList()));
+
+	}
+
+	/**
+	 * Test rejecting records whose geometry does not end at the record length
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testInvalidRecordLength() throws IOException {
+
+		byte[] first = WKBTestUtils
+				.writeBytes(WKBTestUtils.createPoint(false, false));
+		byte[] second = WKBTestUtils
+				.writeBytes(WKBTestUtils.createPoint(false, false));
+
+		for (long length : new long[] { first.length - 1, first.length + 1,
+				first.length + 4 + second.length + 1, 0xffffffffL }) {
+			ByteBuffer buffer = ByteBuffer
+					.allocate(8 + first.length + second.length);
+			buffer.putInt((int) length).put(first);
+			buffer.putInt(second.length).put(second);
+			buffer.flip();
+			try {
+				GeometryReader.streamRecords(buffer, ByteOrder.BIG_ENDIAN)
+						.collect(Collectors.toList());
+				TestCase.fail("Invalid record length did not fail: " + length);
+			} catch (SFException e) {
+				// expected
+			}
+		}
+
+	}
+
+	/**
+	 * Create random geometries
+	 * 
+	 * @return geometries
+	 */
+	private List<Geometry> createGeometries() {
+		List<Geometry> geometries = new ArrayList<>();
+		for (int i = 0; i < GEOMETRY_COUNT; i++) {
+			geometries.add(WKBTestUtils.createPolygon(WKBTestUtils.coinFlip(),
+					WKBTestUtils.coinFlip()));
+		}
+		return geometries;
+	}
+
+	/**
+	 * Compare the expected and streamed geometries in order
+	 * 
+	 * @param expected
+	 *            expected geometries
+	 * @param actual
+	 *            streamed geometries
+	 */
+	private void compareGeometries(List<Geometry> expected,
+			List<Geometry> actual) {
+		TestCase.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			WKBTestUtils.compareGeometries(expected.get(i), actual.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,239 @@
+package mil.nga.sf.wkb.test;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.Curve;
+import mil.nga.sf.CurvePolygon;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.PolyhedralSurface;
+import mil.nga.sf.TIN;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.wkb.GeometryCodes;
+import mil.nga.sf.wkb.GeometryReader;
+import mil.nga.sf.wkb.GeometryWriter;
+import mil.nga.sf.wkb.PackedGeometry;
+
+/**
+ * Test reading Well Known Binary into packed geometries
+ * 
+ * @author osbornb
+ */
+public class PackedGeometryTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Test packed geometries of each geometry type
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testPackedGeometries() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			packedTester(WKBTestUtils.createPoint(hasZ, hasM));
+			packedTester(WKBTestUtils.createLineString(hasZ, hasM));
+			packedTester(WKBTestUtils.createPolygon(hasZ, hasM));
+			packedTester(WKBTestUtils.createMultiPoint(hasZ, hasM));
+			packedTester(WKBTestUtils.createMultiLineString(hasZ, hasM));
+			packedTester(WKBTestUtils.createMultiPolygon(hasZ, hasM));
+			packedTester(WKBTestUtils.createGeometryCollection(hasZ, hasM));
+			packedTester(WKBTestUtils.createCompoundCurve(hasZ, hasM));
+			packedTester(WKBTestUtils.createCurvePolygon(hasZ, hasM));
+
+			TIN tin = new TIN(hasZ, hasM);
+			tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			packedTester(tin);
+		}
+
+	}
+
+	/**
+	 * Test packed geometries with mixed member dimensions
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testMixedDimensions() throws IOException {
+
+		// Write a 2D measured collection containing XY and XYZM members
+		Point point = WKBTestUtils.createPoint(false, false);
+		LineString lineString = WKBTestUtils.createLineString(true, true);
+		ByteWriter writer = new ByteWriter();
+		writer.writeByte((byte) 0);
+		writer.writeInt(GeometryCodes
+				.getCode(GeometryType.GEOMETRYCOLLECTION, false, true));
+		writer.writeInt(2);
+		GeometryWriter.writeGeometry(writer, point);
+		GeometryWriter.writeGeometry(writer, lineString);
+		byte[] bytes = writer.getBytes();
+		writer.close();
+
+		PackedGeometry packed = GeometryReader.readPackedGeometry(bytes);
+		TestCase.assertFalse(packed.hasZ());
+		TestCase.assertTrue(packed.hasM());
+		TestCase.assertEquals(3, packed.getDimension());
+		TestCase.assertEquals(point.getX(), packed.getX(0));
+		TestCase.assertTrue(Double.isNaN(packed.getM(0)));
+		for (int i = 0; i < lineString.numPoints(); i++) {
+			TestCase.assertEquals(lineString.getPoint(i).getM(),
+					packed.getM(i + 1));
+		}
+
+	}
+
+	/**
+	 * Read the geometry as packed and compare with the geometry
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void packedTester(Geometry geometry) throws IOException {
+
+		List<GeometryType> types = new ArrayList<>();
+		List<Integer> counts = new ArrayList<>();
+		List<Point> points = new ArrayList<>();
+		List<Integer> partOffsets = new ArrayList<>();
+		flatten(geometry, types, counts, points, partOffsets);
+
+		for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+				ByteOrder.LITTLE_ENDIAN }) {
+
+			PackedGeometry packed = GeometryReader.readPackedGeometry(
+					WKBTestUtils.writeBytes(geometry, byteOrder));
+
+			TestCase.assertEquals(geometry.getGeometryType(),
+					packed.getGeometryType());
+			TestCase.assertEquals(geometry.hasZ(), packed.hasZ());
+			TestCase.assertEquals(geometry.hasM(), packed.hasM());
+
+			TestCase.assertEquals(types.size(), packed.numNodes());
+			for (int i = 0; i < types.size(); i++) {
+				TestCase.assertEquals(types.get(i), packed.getNodeType(i));
+				TestCase.assertEquals(counts.get(i).intValue(),
+						packed.getNodeCount(i));
+			}
+
+			TestCase.assertEquals(partOffsets.size(), packed.numParts());
+			for (int i = 0; i < partOffsets.size(); i++) {
+				TestCase.assertEquals(partOffsets.get(i).intValue(),
+						packed.getPartStart(i));
+			}
+
+			TestCase.assertEquals(points.size(), packed.numPoints());
+			TestCase.assertEquals(points.size() * packed.getDimension(),
+					packed.getCoordinates().length);
+			for (int i = 0; i < points.size(); i++) {
+				Point point = points.get(i);
+				TestCase.assertEquals(point.getX(), packed.getX(i));
+				TestCase.assertEquals(point.getY(), packed.getY(i));
+				if (packed.hasZ()) {
+					TestCase.assertEquals(point.getZ(), packed.getZ(i));
+				}
+				if (packed.hasM()) {
+					TestCase.assertEquals(point.getM(), packed.getM(i));
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Flatten the geometry into expected depth first nodes, points, and part
+	 * offsets
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param types
+	 *            node types
+	 * @param counts
+	 *            node counts
+	 * @param points
+	 *            points
+	 * @param partOffsets
+	 *            part offsets
+	 */
+	private void flatten(Geometry geometry, List<GeometryType> types,
+			List<Integer> counts, List<Point> points,
+			List<Integer> partOffsets) {
+
+		GeometryType geometryType = geometry.getGeometryType();
+		types.add(geometryType);
+
+		switch (geometryType) {
+		case POINT:
+			counts.add(1);
+			partOffsets.add(points.size());
+			points.add((Point) geometry);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			LineString lineString = (LineString) geometry;
+			counts.add(lineString.numPoints());
+			partOffsets.add(points.size());
+			points.addAll(lineString.getPoints());
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			Polygon polygon = (Polygon) geometry;
+			counts.add(polygon.numRings());
+			for (LineString ring : polygon.getRings()) {
+				flatten(ring, types, counts, points, partOffsets);
+			}
+			break;
+		case COMPOUNDCURVE:
+			CompoundCurve compoundCurve = (CompoundCurve) geometry;
+			counts.add(compoundCurve.numLineStrings());
+			for (LineString segment : compoundCurve.getLineStrings()) {
+				flatten(segment, types, counts, points, partOffsets);
+			}
+			break;
+		case CURVEPOLYGON:
+			@SuppressWarnings("unchecked")
+			CurvePolygon<Curve> curvePolygon = (CurvePolygon<Curve>) geometry;
+			counts.add(curvePolygon.numRings());
+			for (Curve ring : curvePolygon.getRings()) {
+				flatten(ring, types, counts, points, partOffsets);
+			}
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			PolyhedralSurface surface = (PolyhedralSurface) geometry;
+			counts.add(surface.numPolygons());
+			for (Polygon face : surface.getPolygons()) {
+				flatten(face, types, counts, points, partOffsets);
+			}
+			break;
+		default:
+			GeometryCollection<?> collection = (GeometryCollection<?>) geometry;
+			counts.add(collection.numGeometries());
+			for (Geometry member : collection.getGeometries()) {
+				flatten(member, types, counts, points, partOffsets);
+			}
+		}
+
+	}
+
+}
@@ -1,8 +1,14 @@
 package mil.nga.sf.wkb.test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
@@ -21,14 +27,28 @@ import mil.nga.sf.MultiPolygon;
 import mil.nga.sf.Point;
 import mil.nga.sf.Polygon;
 import mil.nga.sf.Surface;
+import mil.nga.sf.TIN;
 import mil.nga.sf.extended.ExtendedGeometryCollection;
 import mil.nga.sf.util.ByteReader;
 import mil.nga.sf.util.GeometryEnvelopeBuilder;
+import mil.nga.sf.util.SFException;
 import mil.nga.sf.util.filter.FiniteFilterType;
+import mil.nga.sf.util.filter.GeometryFilter;
 import mil.nga.sf.util.filter.PointFiniteFilter;
+import mil.nga.sf.wkb.ByteArrayReader;
+import mil.nga.sf.wkb.ByteArrayWriter;
+import mil.nga.sf.wkb.ByteBufferReader;
+import mil.nga.sf.wkb.ByteBufferWriter;
 import mil.nga.sf.wkb.GeometryCodes;
+import mil.nga.sf.wkb.GeometryEnvelopeFilter;
 import mil.nga.sf.wkb.GeometryReader;
+import mil.nga.sf.wkb.GeometryTypeInfo;
+import mil.nga.sf.wkb.GeometryTypesFilter;
 import mil.nga.sf.wkb.GeometryWriter;
+import mil.nga.sf.wkb.LazyGeometry;
+import mil.nga.sf.wkb.PackedGeometry;
+import mil.nga.sf.wkb.StreamByteReader;
+import mil.nga.sf.wkb.StreamByteWriter;
 
 /**
  * Test Well Known Binary Geometries
@@ -598,6 +618,1101 @@ public class WKBTest {
 
 	}
 
+	/**
+	 * Test reading consecutive geometries from a single stream
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testStreamConcatenated() throws IOException {
+
+		List<Geometry> geometries = new ArrayList<>();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createPolygon(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			geometries.add(geometry);
+			outputStream.write(WKBTestUtils.writeBytes(geometry,
+					i % 2 == 0 ? ByteOrder.BIG_ENDIAN
+							: ByteOrder.LITTLE_ENDIAN));
+		}
+
+		GeometryReader reader = new GeometryReader(
+				new ByteArrayInputStream(outputStream.toByteArray()));
+		try {
+			for (Geometry geometry : geometries) {
+				WKBTestUtils.compareGeometries(geometry, reader.read());
+			}
+			try {
+				reader.read();
+				TestCase.fail("Expected end of stream");
+			} catch (IOException e) {
+				// expected
+			}
+		} finally {
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Test reusing a reader reset to array ranges
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReaderReset() throws IOException {
+
+		List<Geometry> geometries = new ArrayList<>();
+		List<Integer> offsets = new ArrayList<>();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createMultiLineString(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			geometries.add(geometry);
+			offsets.add(outputStream.size());
+			outputStream.write(WKBTestUtils.writeBytes(geometry,
+					i % 2 == 0 ? ByteOrder.BIG_ENDIAN
+							: ByteOrder.LITTLE_ENDIAN));
+		}
+		offsets.add(outputStream.size());
+		byte[] bytes = outputStream.toByteArray();
+
+		GeometryReader reader = new GeometryReader(new byte[0]);
+		for (int i = 0; i < geometries.size(); i++) {
+			int offset = offsets.get(i);
+			reader.reset(bytes, offset, offsets.get(i + 1) - offset);
+			WKBTestUtils.compareGeometries(geometries.get(i), reader.read());
+			TestCase.assertEquals(offsets.get(i + 1) - offset,
+					reader.getByteReader().getNextByte());
+		}
+
+		// Ranges outside of the array, including int overflowing ranges
+		int[][] invalidRanges = new int[][] { { -1, 1 }, { 0, -1 },
+				{ 1, bytes.length }, { bytes.length + 1, 0 },
+				{ Integer.MAX_VALUE, 2 }, { 2, Integer.MAX_VALUE } };
+		for (int[] range : invalidRanges) {
+			try {
+				reader.reset(bytes, range[0], range[1]);
+				TestCase.fail("Invalid range did not fail. Offset: "
+						+ range[0] + ", Length: " + range[1]);
+			} catch (IndexOutOfBoundsException e) {
+				// Expected
+			}
+		}
+		reader.close();
+
+		// Nested static reads from within a filter use separate readers
+		final byte[] nestedBytes = WKBTestUtils
+				.writeBytes(geometries.get(0));
+		byte[] outerBytes = WKBTestUtils.writeBytes(geometries.get(1));
+		Geometry geometry = GeometryReader.readGeometry(outerBytes,
+				new GeometryFilter() {
+					@Override
+					public boolean filter(GeometryType containingType,
+							Geometry geometry) {
+						try {
+							return GeometryReader
+									.readGeometry(nestedBytes) != null;
+						} catch (IOException e) {
+							throw new RuntimeException(e);
+						}
+					}
+				});
+		WKBTestUtils.compareGeometries(geometries.get(1), geometry);
+
+	}
+
+	/**
+	 * Test skipping consecutive geometries without decoding
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testSkip() throws IOException {
+
+		List<Geometry> geometries = new ArrayList<>();
+		List<Integer> offsets = new ArrayList<>();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			geometries.add(geometry);
+			offsets.add(outputStream.size());
+			outputStream.write(WKBTestUtils.writeBytes(geometry,
+					i % 2 == 0 ? ByteOrder.BIG_ENDIAN
+							: ByteOrder.LITTLE_ENDIAN));
+		}
+		offsets.add(outputStream.size());
+		byte[] bytes = outputStream.toByteArray();
+
+		// Measure each geometry from its offset
+		for (int i = 0; i < geometries.size(); i++) {
+			TestCase.assertEquals(offsets.get(i + 1) - offsets.get(i),
+					GeometryReader.measureLength(bytes, offsets.get(i)));
+		}
+
+		// Skip every other geometry in skippable and non skippable readers
+		GeometryReader[] readers = new GeometryReader[] {
+				new GeometryReader(bytes),
+				new GeometryReader(new ByteArrayInputStream(bytes)),
+				new GeometryReader(new ByteReader(bytes)) };
+		for (GeometryReader reader : readers) {
+			for (int i = 0; i < geometries.size(); i++) {
+				if (i % 2 == 0) {
+					TestCase.assertEquals(offsets.get(i + 1) - offsets.get(i),
+							reader.skip());
+				} else {
+					WKBTestUtils.compareGeometries(geometries.get(i),
+							reader.read());
+				}
+				TestCase.assertEquals((int) offsets.get(i + 1),
+						reader.getByteReader().getNextByte());
+			}
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Test filtering geometries by type before reading them
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testTypeFilter() throws IOException {
+
+		GeometryCollection<Geometry> geometryCollection = new GeometryCollection<>(
+				false, false);
+		GeometryCollection<Geometry> polygons = new GeometryCollection<>(
+				false, false);
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			geometryCollection.addGeometry(
+					WKBTestUtils.createPoint(false, false));
+			geometryCollection.addGeometry(
+					WKBTestUtils.createLineString(false, false));
+			Polygon polygon = WKBTestUtils.createPolygon(false, false);
+			geometryCollection.addGeometry(polygon);
+			polygons.addGeometry(polygon);
+		}
+
+		GeometryTypesFilter filter = new GeometryTypesFilter(
+				GeometryType.GEOMETRYCOLLECTION, GeometryType.POLYGON);
+
+		byte[] bytes = WKBTestUtils.writeBytes(geometryCollection);
+		Geometry geometry = GeometryReader.readGeometry(bytes, filter);
+		WKBTestUtils.compareGeometries(polygons, geometry);
+
+		// Rejected top level geometries are skipped in consecutive reads
+		byte[] lineStringBytes = WKBTestUtils
+				.writeBytes(WKBTestUtils.createLineString(false, false));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		outputStream.write(lineStringBytes);
+		outputStream.write(bytes);
+		GeometryReader reader = new GeometryReader(
+				new ByteArrayInputStream(outputStream.toByteArray()));
+		TestCase.assertNull(reader.read(filter));
+		TestCase.assertEquals(lineStringBytes.length,
+				reader.getByteReader().getNextByte());
+		WKBTestUtils.compareGeometries(polygons, reader.read(filter));
+		reader.close();
+
+	}
+
+	/**
+	 * Test discarding geometries disjoint from a query envelope
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testEnvelopeFilter() throws IOException {
+
+		GeometryEnvelope queryEnvelope = new GeometryEnvelope(-90.0, -45.0,
+				90.0, 45.0);
+		GeometryEnvelopeFilter filter = new GeometryEnvelopeFilter(
+				queryEnvelope);
+
+		GeometryCollection<Geometry> geometryCollection = new GeometryCollection<>(
+				false, false);
+		GeometryCollection<Geometry> intersecting = new GeometryCollection<>(
+				false, false);
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry[] geometries = new Geometry[] {
+					WKBTestUtils.createPoint(false, false),
+					WKBTestUtils.createLineString(false, false),
+					WKBTestUtils.createPolygon(false, false) };
+			for (Geometry geometry : geometries) {
+				geometryCollection.addGeometry(geometry);
+				if (filter.intersects(
+						GeometryEnvelopeBuilder.buildEnvelope(geometry))) {
+					if (geometry instanceof Polygon) {
+						// Disjoint holes are pruned
+						Polygon polygon = (Polygon) geometry;
+						Polygon expectedPolygon = new Polygon(false, false);
+						for (int ring = 0; ring < polygon
+								.numRings(); ring++) {
+							LineString lineString = polygon.getRing(ring);
+							if (ring == 0 || filter.intersects(
+									GeometryEnvelopeBuilder
+											.buildEnvelope(lineString))) {
+								expectedPolygon.addRing(lineString);
+							}
+						}
+						geometry = expectedPolygon;
+					}
+					intersecting.addGeometry(geometry);
+				}
+			}
+		}
+
+		byte[] bytes = WKBTestUtils.writeBytes(geometryCollection);
+
+		// Scanned and sought back before reading from arrays and buffers
+		WKBTestUtils.compareGeometries(intersecting,
+				new GeometryReader(bytes).readIntersecting(queryEnvelope));
+		WKBTestUtils.compareGeometries(intersecting,
+				GeometryReader.readGeometry(bytes, filter));
+		WKBTestUtils.compareGeometries(intersecting,
+				new GeometryReader(ByteBuffer.wrap(bytes))
+						.readIntersecting(queryEnvelope));
+
+		// Scanned before reading from streams
+		GeometryReader reader = new GeometryReader(
+				new ByteArrayInputStream(bytes));
+		WKBTestUtils.compareGeometries(intersecting,
+				reader.readIntersecting(queryEnvelope));
+		reader.close();
+
+		// Disjoint top level geometries are not read
+		Point point = new Point(120.0, 60.0);
+		TestCase.assertNull(GeometryReader
+				.readGeometry(WKBTestUtils.writeBytes(point), filter));
+		TestCase.assertNull(new GeometryReader(
+				new ByteArrayInputStream(WKBTestUtils.writeBytes(point)))
+						.readIntersecting(queryEnvelope));
+
+		// Collections without intersecting members are disjoint
+		MultiPoint disjointPoints = new MultiPoint(false, false);
+		disjointPoints.addPoint(new Point(120.0, 60.0));
+		disjointPoints.addPoint(new Point(-120.0, -60.0));
+		byte[] disjointBytes = WKBTestUtils.writeBytes(disjointPoints);
+		TestCase.assertNull(new GeometryReader(disjointBytes)
+				.readIntersecting(queryEnvelope));
+		TestCase.assertNull(
+				new GeometryReader(new ByteArrayInputStream(disjointBytes))
+						.readIntersecting(queryEnvelope));
+
+		// Holes disjoint from the query envelope are pruned
+		Polygon holes = new Polygon(false, false);
+		holes.addRing(createRing(-150.0, -75.0, 150.0, 75.0));
+		holes.addRing(createRing(100.0, 50.0, 110.0, 60.0));
+		holes.addRing(createRing(-10.0, -10.0, 10.0, 10.0));
+		Polygon prunedHoles = new Polygon(false, false);
+		prunedHoles.addRing(holes.getRing(0));
+		prunedHoles.addRing(holes.getRing(2));
+		byte[] holesBytes = WKBTestUtils.writeBytes(holes);
+		WKBTestUtils.compareGeometries(prunedHoles,
+				new GeometryReader(holesBytes).readIntersecting(queryEnvelope));
+		WKBTestUtils.compareGeometries(prunedHoles,
+				new GeometryReader(new ByteArrayInputStream(holesBytes))
+						.readIntersecting(queryEnvelope));
+
+		// Nested collection members are scanned once and decoded from the
+		// scanned values
+		Geometry nested = new Point(10.0, 20.0);
+		Geometry expected = nested;
+		for (int i = 0; i < 64; i++) {
+			GeometryCollection<Geometry> collection = new GeometryCollection<>(
+					false, false);
+			collection.addGeometry(nested);
+			GeometryCollection<Geometry> expectedCollection = new GeometryCollection<>(
+					false, false);
+			expectedCollection.addGeometry(expected);
+			if (i == 0) {
+				collection.addGeometry(disjointPoints);
+			}
+			nested = collection;
+			expected = expectedCollection;
+		}
+		final int[] valuesRead = new int[1];
+		ByteArrayReader countingReader = new ByteArrayReader(
+				WKBTestUtils.writeBytes(nested)) {
+
+			@Override
+			public double readDouble() throws IOException {
+				valuesRead[0]++;
+				return super.readDouble();
+			}
+
+			@Override
+			public void readDoubles(double[] values, int offset, int length)
+					throws IOException {
+				valuesRead[0] += length;
+				super.readDoubles(values, offset, length);
+			}
+
+		};
+		WKBTestUtils.compareGeometries(expected,
+				new GeometryReader(countingReader)
+						.readIntersecting(queryEnvelope));
+		// Each point read once, the intersecting point is not read again
+		TestCase.assertEquals(3 * 2, valuesRead[0]);
+
+	}
+
+	/**
+	 * Test lazy geometry views decoding members on access
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testLazyGeometry() throws IOException {
+
+		boolean hasZ = WKBTestUtils.coinFlip();
+		boolean hasM = WKBTestUtils.coinFlip();
+		GeometryCollection<Geometry> geometryCollection = WKBTestUtils
+				.createGeometryCollection(hasZ, hasM);
+		MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(hasZ,
+				hasM);
+		geometryCollection.addGeometry(multiPolygon);
+		byte[] bytes = WKBTestUtils.writeBytes(geometryCollection,
+				ByteOrder.LITTLE_ENDIAN);
+
+		// Read from an array range
+		byte[] padded = new byte[bytes.length + 8];
+		System.arraycopy(bytes, 0, padded, 3, bytes.length);
+		LazyGeometry lazy = GeometryReader.readLazyGeometry(padded, 3,
+				bytes.length + 5);
+
+		TestCase.assertEquals(GeometryType.GEOMETRYCOLLECTION,
+				lazy.getGeometryType());
+		TestCase.assertEquals(geometryCollection.hasZ(), lazy.hasZ());
+		TestCase.assertEquals(geometryCollection.hasM(), lazy.hasM());
+		TestCase.assertEquals(bytes.length, lazy.getLength());
+		TestCase.assertEquals(geometryCollection.numGeometries(),
+				lazy.numGeometries());
+
+		for (int i = geometryCollection.numGeometries() - 1; i >= 0; i--) {
+			WKBTestUtils.compareGeometries(geometryCollection.getGeometry(i),
+					lazy.getGeometry(i));
+		}
+
+		LazyGeometry lazyMultiPolygon = lazy
+				.getLazyGeometry(lazy.numGeometries() - 1);
+		TestCase.assertEquals(multiPolygon.numPolygons(),
+				lazyMultiPolygon.numGeometries());
+		WKBTestUtils.compareGeometries(multiPolygon.getPolygon(0),
+				lazyMultiPolygon.getGeometry(0));
+		WKBTestUtils.compareGeometries(multiPolygon,
+				lazyMultiPolygon.getGeometry());
+
+		WKBTestUtils.compareGeometries(geometryCollection, lazy.getGeometry());
+
+		// Geometries without members
+		Point point = WKBTestUtils.createPoint(true, true);
+		LazyGeometry lazyPoint = GeometryReader
+				.readLazyGeometry(WKBTestUtils.writeBytes(point));
+		TestCase.assertEquals(0, lazyPoint.numGeometries());
+		WKBTestUtils.compareGeometries(point, lazyPoint.getGeometry());
+
+		// Invalid member indices
+		for (int index : new int[] { -1, lazy.numGeometries() }) {
+			try {
+				lazy.getGeometry(index);
+				TestCase.fail("Invalid member index did not fail: " + index);
+			} catch (IndexOutOfBoundsException e) {
+				// expected
+			}
+		}
+
+		// Corrupt member counts
+		for (int count : new int[] { -1, Integer.MAX_VALUE, bytes.length }) {
+			ByteBuffer.wrap(bytes, 5, 4).order(ByteOrder.LITTLE_ENDIAN)
+					.putInt(count);
+			try {
+				GeometryReader.readLazyGeometry(bytes);
+				TestCase.fail("Invalid member count did not fail: " + count);
+			} catch (SFException e) {
+				// expected
+			}
+		}
+
+	}
+
+	/**
+	 * Test reading single members of collection geometries
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadMember() throws IOException {
+
+		boolean hasZ = WKBTestUtils.coinFlip();
+		boolean hasM = WKBTestUtils.coinFlip();
+
+		MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(hasZ,
+				hasM);
+		for (int i = 0; i < multiPolygon.numPolygons(); i++) {
+			WKBTestUtils.compareGeometries(multiPolygon.getPolygon(i),
+					GeometryReader.readMember(
+							WKBTestUtils.writeBytes(multiPolygon), i,
+							Polygon.class));
+		}
+
+		TIN tin = new TIN(hasZ, hasM);
+		tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+		tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+		tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+		byte[] tinBytes = WKBTestUtils.writeBytes(tin,
+				ByteOrder.LITTLE_ENDIAN);
+		WKBTestUtils.compareGeometries(tin.getPolygon(2),
+				GeometryReader.readMember(tinBytes, 2));
+
+		CompoundCurve compoundCurve = WKBTestUtils.createCompoundCurve(hasZ,
+				hasM);
+		WKBTestUtils.compareGeometries(
+				compoundCurve.getLineString(compoundCurve.numLineStrings() - 1),
+				GeometryReader.readMember(
+						WKBTestUtils.writeBytes(compoundCurve),
+						compoundCurve.numLineStrings() - 1));
+
+		try {
+			GeometryReader.readMember(tinBytes, 3);
+			TestCase.fail("Expected member index out of bounds");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		try {
+			GeometryReader.readMember(WKBTestUtils.writeBytes(
+					WKBTestUtils.createPolygon(hasZ, hasM)), 0);
+			TestCase.fail("Expected geometry without members");
+		} catch (SFException e) {
+			// expected
+		}
+
+		// The byte order is restored when a member read fails
+		GeometryReader reader = new GeometryReader(tinBytes);
+		try {
+			reader.readMember(3);
+			TestCase.fail("Expected member index out of bounds");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		TestCase.assertEquals(ByteOrder.BIG_ENDIAN,
+				reader.getByteReader().getByteOrder());
+		reader.reset(tinBytes);
+		try {
+			reader.readMember(0, LineString.class);
+			TestCase.fail("Expected unexpected member type");
+		} catch (SFException e) {
+			// expected
+		}
+		TestCase.assertEquals(ByteOrder.BIG_ENDIAN,
+				reader.getByteReader().getByteOrder());
+		reader.close();
+
+	}
+
+	/**
+	 * Test writing geometries into heap and direct byte buffers
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testWriteBuffer() throws IOException {
+
+		MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(
+				WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+		byte[] bytes = WKBTestUtils.writeBytes(multiPolygon,
+				ByteOrder.LITTLE_ENDIAN);
+
+		for (ByteBuffer buffer : new ByteBuffer[] {
+				ByteBuffer.allocate(bytes.length + 10),
+				ByteBuffer.allocateDirect(bytes.length + 10) }) {
+
+			buffer.position(3);
+			int written = GeometryWriter.writeGeometry(buffer, multiPolygon,
+					ByteOrder.LITTLE_ENDIAN);
+			TestCase.assertEquals(bytes.length, written);
+			TestCase.assertEquals(3 + bytes.length, buffer.position());
+			TestCase.assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+
+			byte[] bufferBytes = new byte[written];
+			buffer.position(3);
+			buffer.get(bufferBytes);
+			TestCase.assertTrue(Arrays.equals(bytes, bufferBytes));
+
+			// Not enough remaining bytes leaves the buffer unchanged
+			buffer.position(11);
+			try {
+				GeometryWriter.writeGeometry(buffer, multiPolygon,
+						ByteOrder.LITTLE_ENDIAN);
+				TestCase.fail("Expected buffer overflow");
+			} catch (BufferOverflowException e) {
+				// expected
+			}
+			TestCase.assertEquals(11, buffer.position());
+			TestCase.assertEquals(bytes[8], buffer.get(11));
+		}
+
+	}
+
+	/**
+	 * Test rejecting geometries whose encoded size does not fit in an int
+	 * before writing any bytes
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testSizeOverflow() throws IOException {
+
+		Point point = WKBTestUtils.createPoint(true, true);
+		LineString lineString = new LineString(true, true);
+		for (int i = 0; i < 1 << 20; i++) {
+			lineString.addPoint(point);
+		}
+		MultiLineString multiLineString = new MultiLineString(true, true);
+		for (int i = 0; i < 80; i++) {
+			multiLineString.addLineString(lineString);
+		}
+
+		try {
+			GeometryWriter.sizeOf(multiLineString);
+			TestCase.fail("Expected size overflow");
+		} catch (SFException e) {
+			// expected
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(16);
+		try {
+			GeometryWriter.writeGeometry(buffer, multiLineString);
+			TestCase.fail("Expected size overflow");
+		} catch (SFException e) {
+			// expected
+		}
+		TestCase.assertEquals(0, buffer.position());
+
+	}
+
+	/**
+	 * Test writing geometries to streams through a small buffer
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testWriteStream() throws IOException {
+
+		MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(
+				WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+		Point point = WKBTestUtils.createPoint(WKBTestUtils.coinFlip(),
+				WKBTestUtils.coinFlip());
+		byte[] polygonBytes = WKBTestUtils.writeBytes(multiPolygon,
+				ByteOrder.LITTLE_ENDIAN);
+		byte[] pointBytes = WKBTestUtils.writeBytes(point,
+				ByteOrder.LITTLE_ENDIAN);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		long written = GeometryWriter.writeGeometry(outputStream,
+				multiPolygon, ByteOrder.LITTLE_ENDIAN);
+		TestCase.assertEquals(polygonBytes.length, written);
+		TestCase.assertTrue(
+				Arrays.equals(polygonBytes, outputStream.toByteArray()));
+
+		outputStream = new ByteArrayOutputStream();
+		StreamByteWriter streamWriter = new StreamByteWriter(outputStream,
+				ByteOrder.LITTLE_ENDIAN, StreamByteWriter.MIN_BUFFER_SIZE);
+		GeometryWriter writer = new GeometryWriter(streamWriter);
+		writer.write(multiPolygon);
+		writer.write(point);
+		try {
+			writer.getBytes();
+			TestCase.fail("Expected written bytes not retained");
+		} catch (SFException e) {
+			// expected
+		}
+		writer.close();
+		TestCase.assertEquals(polygonBytes.length + pointBytes.length,
+				streamWriter.getBytesWritten());
+
+		GeometryReader reader = new GeometryReader(
+				new ByteArrayInputStream(outputStream.toByteArray()));
+		WKBTestUtils.compareGeometries(multiPolygon, reader.read());
+		WKBTestUtils.compareGeometries(point, reader.read());
+		reader.close();
+
+	}
+
+	/**
+	 * Test resetting and reusing geometry writers
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testWriterReset() throws IOException {
+
+		boolean hasZ = WKBTestUtils.coinFlip();
+		boolean hasM = WKBTestUtils.coinFlip();
+		MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(hasZ,
+				hasM);
+		LineString lineString = WKBTestUtils.createLineString(hasZ, hasM);
+		byte[] polygonBytes = WKBTestUtils.writeBytes(multiPolygon);
+		byte[] lineStringBytes = WKBTestUtils.writeBytes(lineString);
+
+		GeometryWriter writer = new GeometryWriter();
+		writer.write(multiPolygon);
+		TestCase.assertTrue(Arrays.equals(polygonBytes, writer.getBytes()));
+		writer.reset();
+		writer.write(lineString);
+		TestCase.assertTrue(
+				Arrays.equals(lineStringBytes, writer.getBytes()));
+
+		byte[] bytes = new byte[polygonBytes.length + lineStringBytes.length
+				+ 2];
+		writer.reset(bytes, 1, bytes.length - 1);
+		writer.write(multiPolygon);
+		writer.write(lineString);
+		TestCase.assertEquals(bytes.length - 2,
+				writer.getByteWriter().size());
+		writer.reset();
+		writer.write(lineString);
+		writer.close();
+		TestCase.assertTrue(Arrays.equals(lineStringBytes,
+				Arrays.copyOfRange(bytes, 1, 1 + lineStringBytes.length)));
+
+		int written = GeometryWriter.writeGeometry(bytes, 1, multiPolygon,
+				ByteOrder.BIG_ENDIAN);
+		written += GeometryWriter.writeGeometry(bytes, 1 + written,
+				lineString, ByteOrder.BIG_ENDIAN);
+		TestCase.assertEquals(bytes.length - 2, written);
+		GeometryReader reader = new GeometryReader(bytes, 1,
+				bytes.length - 1);
+		WKBTestUtils.compareGeometries(multiPolygon, reader.read());
+		WKBTestUtils.compareGeometries(lineString, reader.read());
+		reader.close();
+
+		try {
+			GeometryWriter.writeGeometry(bytes,
+					bytes.length - polygonBytes.length + 1, multiPolygon,
+					ByteOrder.BIG_ENDIAN);
+			TestCase.fail("Expected not enough remaining bytes");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+
+		try {
+			writer.reset(bytes, Integer.MAX_VALUE, 2);
+			TestCase.fail("Expected invalid range");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+
+	}
+
+	/**
+	 * Test bulk coordinate reading and writing of large line strings across
+	 * byte readers and writers
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testBulkCoordinates() throws IOException {
+
+		boolean hasZ = WKBTestUtils.coinFlip();
+		boolean hasM = WKBTestUtils.coinFlip();
+		LineString lineString = new LineString(hasZ, hasM);
+		for (int i = 0; i < 3000; i++) {
+			lineString.addPoint(WKBTestUtils.createPoint(hasZ, hasM));
+		}
+
+		for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+				ByteOrder.LITTLE_ENDIAN }) {
+
+			// Per value writes of the default byte writer
+			GeometryWriter writer = new GeometryWriter(byteOrder);
+			writer.write(lineString);
+			byte[] bytes = writer.getBytes();
+			writer.close();
+
+			TestCase.assertTrue(Arrays.equals(bytes,
+					GeometryWriter.writeGeometry(lineString, byteOrder)));
+
+			ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+			GeometryWriter.writeGeometry(buffer, lineString, byteOrder);
+			buffer.flip();
+			byte[] bufferBytes = new byte[bytes.length];
+			buffer.duplicate().get(bufferBytes);
+			TestCase.assertTrue(Arrays.equals(bytes, bufferBytes));
+
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			writer = new GeometryWriter(new StreamByteWriter(outputStream,
+					byteOrder, StreamByteWriter.MIN_BUFFER_SIZE + 4));
+			writer.write(lineString);
+			writer.close();
+			TestCase.assertTrue(
+					Arrays.equals(bytes, outputStream.toByteArray()));
+
+			GeometryReader reader = new GeometryReader(buffer);
+			WKBTestUtils.compareGeometries(lineString, reader.read());
+			reader.close();
+
+			PackedGeometry packed = GeometryReader.readPackedGeometry(bytes);
+			TestCase.assertEquals(lineString.numPoints(),
+					packed.numPoints());
+			for (int i = 0; i < lineString.numPoints(); i++) {
+				Point point = lineString.getPoint(i);
+				TestCase.assertEquals(point.getX(), packed.getX(i));
+				TestCase.assertEquals(point.getY(), packed.getY(i));
+				if (hasZ) {
+					TestCase.assertEquals(point.getZ(), packed.getZ(i));
+				}
+				if (hasM) {
+					TestCase.assertEquals(point.getM(), packed.getM(i));
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test bulk double copies of the byte array, byte buffer, and stream
+	 * readers and writers at each byte alignment in both byte orders,
+	 * matching the per value copies and surviving resets to new arrays
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testBulkDoubleViews() throws IOException {
+
+		double[] values = new double[150];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.random() * 1000 - 500;
+		}
+
+		ByteArrayReader reader = new ByteArrayReader();
+		for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+				ByteOrder.LITTLE_ENDIAN }) {
+			for (int alignment = 0; alignment < 8; alignment++) {
+
+				byte[] bulkBytes = new byte[alignment + 8 * values.length];
+				ByteArrayWriter writer = new ByteArrayWriter(bulkBytes,
+						byteOrder);
+				writer.reset(bulkBytes, alignment, 8 * values.length);
+				writer.writeDoubles(values, 0, values.length);
+
+				byte[] perValueBytes = new byte[bulkBytes.length];
+				writer.reset(perValueBytes, alignment, 8 * values.length);
+				writer.setBulkCopy(false);
+				writer.writeDoubles(values, 0, values.length);
+				TestCase.assertTrue(Arrays.equals(bulkBytes, perValueBytes));
+
+				for (boolean bulkCopy : new boolean[] { true, false }) {
+					reader.reset(bulkBytes, alignment, 8 * values.length);
+					reader.setByteOrder(byteOrder);
+					reader.setBulkCopy(bulkCopy);
+					double[] read = new double[values.length];
+					reader.readDoubles(read, 0, 10);
+					reader.readDoubles(read, 10, values.length - 10);
+					TestCase.assertTrue(Arrays.equals(values, read));
+					TestCase.assertEquals(0, reader.remaining());
+				}
+
+				// Heap and direct byte buffer readers and writers
+				for (ByteBuffer buffer : new ByteBuffer[] {
+						ByteBuffer.allocate(bulkBytes.length),
+						ByteBuffer.allocateDirect(bulkBytes.length) }) {
+					buffer.position(alignment);
+					ByteBufferWriter bufferWriter = new ByteBufferWriter(
+							buffer, byteOrder);
+					bufferWriter.writeDoubles(values, 0, 10);
+					bufferWriter.writeDoubles(values, 10, values.length - 10);
+					TestCase.assertTrue(Arrays.equals(
+							Arrays.copyOfRange(bulkBytes, alignment,
+									bulkBytes.length),
+							bufferWriter.getBytes()));
+
+					ByteBufferReader bufferReader = new ByteBufferReader(
+							buffer, alignment, 8 * values.length, byteOrder);
+					double[] read = new double[values.length];
+					bufferReader.readDoubles(read, 0, 10);
+					bufferReader.readDoubles(read, 10, values.length - 10);
+					TestCase.assertTrue(Arrays.equals(values, read));
+					TestCase.assertEquals(0, bufferReader.remaining());
+				}
+
+				// Stream writer with runs split across buffer drains
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				StreamByteWriter streamWriter = new StreamByteWriter(
+						outputStream, byteOrder, 8 * 7 + alignment);
+				for (int i = 0; i < alignment; i++) {
+					streamWriter.writeByte((byte) 0);
+				}
+				streamWriter.writeDoubles(values, 0, 10);
+				streamWriter.writeDoubles(values, 10, values.length - 10);
+				streamWriter.close();
+				TestCase.assertTrue(
+						Arrays.equals(bulkBytes, outputStream.toByteArray()));
+			}
+		}
+
+	}
+
+	/**
+	 * Test the pooled static read and write paths do not create double views
+	 * for short coordinate runs, allocating only the geometry objects and
+	 * written bytes
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testPooledAllocation() throws IOException {
+
+		java.lang.management.ThreadMXBean threadBean = ManagementFactory
+				.getThreadMXBean();
+		if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+			return;
+		}
+		com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+		if (!allocationBean.isThreadAllocatedMemorySupported()
+				|| !allocationBean.isThreadAllocatedMemoryEnabled()) {
+			return;
+		}
+		long threadId = Thread.currentThread().getId();
+
+		LineString lineString = new LineString(false, false);
+		for (int i = 0; i < 16; i++) {
+			lineString.addPoint(new Point(i, -i));
+		}
+		byte[] bytes = WKBTestUtils.writeBytes(lineString);
+
+		// Coordinate runs of array readers reset to new arrays
+		byte[][] arrays = new byte[][] { bytes, bytes.clone() };
+		double[] values = new double[32];
+		ByteArrayReader reader = new ByteArrayReader();
+		int iterations = 10000;
+		for (int warmup = 0; warmup < 2; warmup++) {
+			long allocated = allocationBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < iterations; i++) {
+				reader.reset(arrays[i & 1], 9, 8 * values.length);
+				reader.readDoubles(values, 0, values.length);
+				reader.clear();
+			}
+			allocated = allocationBean.getThreadAllocatedBytes(threadId)
+					- allocated;
+			if (warmup == 1) {
+				TestCase.assertTrue("Allocated bytes: " + allocated,
+						allocated < 16L * iterations);
+			}
+		}
+
+		// Pooled writes allocate little beyond the written bytes
+		for (int warmup = 0; warmup < 2; warmup++) {
+			long allocated = allocationBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < iterations; i++) {
+				GeometryWriter.writeGeometry(lineString);
+			}
+			allocated = allocationBean.getThreadAllocatedBytes(threadId)
+					- allocated;
+			if (warmup == 1) {
+				TestCase.assertTrue("Allocated bytes: " + allocated,
+						allocated < (bytes.length + 128L) * iterations);
+			}
+		}
+
+		// Pooled reads still decode correctly across the resets
+		for (int i = 0; i < 4; i++) {
+			WKBTestUtils.compareGeometries(lineString,
+					GeometryReader.readGeometry(arrays[i & 1]));
+		}
+
+	}
+
+	/**
+	 * Test reading and writing line strings and circular strings of each
+	 * dimension
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testDimensions() throws IOException {
+
+		for (int dimensions = 0; dimensions < 4; dimensions++) {
+			boolean hasZ = (dimensions & 1) != 0;
+			boolean hasM = (dimensions & 2) != 0;
+
+			MultiLineString multiLineString = new MultiLineString(hasZ,
+					hasM);
+			multiLineString.addLineString(new LineString(hasZ, hasM));
+			for (int i = 0; i < 3; i++) {
+				LineString lineString = new LineString(hasZ, hasM);
+				for (int j = 0; j < 700 * i + 2; j++) {
+					lineString.addPoint(WKBTestUtils.createPoint(hasZ, hasM));
+				}
+				multiLineString.addLineString(lineString);
+			}
+
+			GeometryWriter writer = new GeometryWriter();
+			writer.write(multiLineString);
+			byte[] bytes = writer.getBytes();
+			writer.close();
+			TestCase.assertTrue(Arrays.equals(bytes,
+					GeometryWriter.writeGeometry(multiLineString)));
+			TestCase.assertEquals(bytes.length,
+					GeometryWriter.sizeOf(multiLineString));
+
+			WKBTestUtils.compareGeometries(multiLineString,
+					GeometryReader.readGeometry(bytes));
+			GeometryReader reader = new GeometryReader(
+					new ByteArrayInputStream(bytes));
+			WKBTestUtils.compareGeometries(multiLineString, reader.read());
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * Test writing line strings with points not matching the line string
+	 * dimensions, added without updating the line string dimensions. Points
+	 * are written in the line string dimensions by every writer, matching the
+	 * header and the computed size.
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testMixedDimensionPoints() throws IOException {
+
+		Point xy = new Point(1.0, 2.0);
+		Point xyz = new Point(3.0, 4.0, 5.0);
+		Point xyzm = new Point(6.0, 7.0, 8.0, 9.0);
+
+		LineString zLineString = new LineString(true, false);
+		zLineString.getPoints().add(xy);
+		zLineString.getPoints().add(xyz);
+		zLineString.getPoints().add(xyzm);
+
+		LineString xyLineString = new LineString(false, false);
+		xyLineString.setPoints(new ArrayList<>(Arrays.asList(xyz, xyzm, xy)));
+
+		LineString mLineString = new LineString(false, true);
+		mLineString.setPoints(new ArrayList<>(Arrays.asList(xy, xyzm, xyz)));
+
+		LineString zmLineString = new LineString(true, true);
+		zmLineString.setPoints(new ArrayList<>(Arrays.asList(xyzm, xy, xyz)));
+
+		for (LineString lineString : Arrays.asList(zLineString, xyLineString,
+				mLineString, zmLineString)) {
+
+			int size = GeometryWriter.sizeOf(lineString);
+			TestCase.assertEquals(9 + 8
+					* (2 + (lineString.hasZ() ? 1 : 0)
+							+ (lineString.hasM() ? 1 : 0))
+					* lineString.numPoints(), size);
+
+			for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+					ByteOrder.LITTLE_ENDIAN }) {
+
+				byte[] bytes = GeometryWriter.writeGeometry(lineString,
+						byteOrder);
+				TestCase.assertEquals(size, bytes.length);
+
+				// Per value writes of the default byte writer
+				GeometryWriter writer = new GeometryWriter(byteOrder);
+				writer.write(lineString);
+				TestCase.assertTrue(Arrays.equals(bytes, writer.getBytes()));
+				writer.close();
+
+				for (ByteBuffer buffer : new ByteBuffer[] {
+						ByteBuffer.allocate(size),
+						ByteBuffer.allocateDirect(size) }) {
+					TestCase.assertEquals(size, GeometryWriter
+							.writeGeometry(buffer, lineString, byteOrder));
+					TestCase.assertEquals(0, buffer.remaining());
+					buffer.flip();
+					byte[] bufferBytes = new byte[size];
+					buffer.get(bufferBytes);
+					TestCase.assertTrue(Arrays.equals(bytes, bufferBytes));
+				}
+
+				LineString read = GeometryReader.readGeometry(bytes,
+						LineString.class);
+				TestCase.assertEquals(lineString.hasZ(), read.hasZ());
+				TestCase.assertEquals(lineString.hasM(), read.hasM());
+				TestCase.assertEquals(lineString.numPoints(),
+						read.numPoints());
+				for (int i = 0; i < lineString.numPoints(); i++) {
+					Point point = lineString.getPoint(i);
+					Point readPoint = read.getPoint(i);
+					TestCase.assertEquals(point.getX(), readPoint.getX());
+					TestCase.assertEquals(point.getY(), readPoint.getY());
+					if (lineString.hasZ()) {
+						TestCase.assertEquals(
+								point.hasZ() ? point.getZ() : Double.NaN,
+								readPoint.getZ());
+					}
+					if (lineString.hasM()) {
+						TestCase.assertEquals(
+								point.hasM() ? point.getM() : Double.NaN,
+								readPoint.getM());
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test scanning envelopes of curve and surface geometries
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadEnvelope() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+
+			TIN tin = new TIN(hasZ, hasM);
+			tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+			tin.addPolygon(WKBTestUtils.createPolygon(hasZ, hasM));
+
+			Geometry[] geometries = new Geometry[] {
+					WKBTestUtils.createCompoundCurve(hasZ, hasM),
+					WKBTestUtils.createCurvePolygon(hasZ, hasM),
+					WKBTestUtils.createMultiCurve(),
+					WKBTestUtils.createMultiSurface(), tin };
+
+			for (Geometry geometry : geometries) {
+				byte[] bytes = WKBTestUtils.writeBytes(geometry,
+						ByteOrder.LITTLE_ENDIAN);
+				WKBTestUtils.compareEnvelopes(
+						GeometryEnvelopeBuilder.buildEnvelope(geometry),
+						GeometryReader.readEnvelope(bytes));
+			}
+		}
+
+		// Empty geometries have no envelope
+		TestCase.assertNull(GeometryReader.readEnvelope(
+				WKBTestUtils.writeBytes(new LineString(false, false))));
+
+	}
+
 	/**
 	 * Test the geometry writing to and reading from bytes
 	 * 
@@ -631,6 +1746,16 @@ public class WKBTest {
 
 		TestCase.assertFalse(WKBTestUtils.equalByteArrays(bytes1, bytes2));
 
+		// Test the exact size writes match the growing byte writer
+		TestCase.assertEquals(bytes1.length, GeometryWriter.sizeOf(geometry));
+		GeometryWriter writer = new GeometryWriter(ByteOrder.LITTLE_ENDIAN);
+		try {
+			writer.write(geometry);
+			WKBTestUtils.compareByteArrays(bytes2, writer.getBytes());
+		} finally {
+			writer.close();
+		}
+
 		// Test that the bytes are read using their written byte order, not
 		// the specified
 		Geometry geometry1opposite = WKBTestUtils.readGeometry(bytes1,
@@ -651,6 +1776,19 @@ public class WKBTest {
 		WKBTestUtils.compareGeometries(compareGeometry, geometry2);
 		WKBTestUtils.compareGeometries(geometry1, geometry2);
 
+		// Read the geometries in place from heap and direct byte buffers
+		WKBTestUtils.compareGeometries(compareGeometry,
+				WKBTestUtils.readGeometry(bytes1, false));
+		WKBTestUtils.compareGeometries(compareGeometry,
+				WKBTestUtils.readGeometry(bytes2, true));
+
+		// Read the geometries incrementally from streams
+		WKBTestUtils.compareGeometries(compareGeometry,
+				WKBTestUtils.readGeometry(bytes1,
+						StreamByteReader.MIN_BUFFER_SIZE, false));
+		WKBTestUtils.compareGeometries(compareGeometry,
+				WKBTestUtils.readGeometry(bytes2, 64, true));
+
 		GeometryEnvelope envelope = GeometryEnvelopeBuilder
 				.buildEnvelope(compareGeometry);
 		GeometryEnvelope envelope1 = GeometryEnvelopeBuilder
@@ -660,6 +1798,42 @@ public class WKBTest {
 
 		WKBTestUtils.compareEnvelopes(envelope, envelope1);
 		WKBTestUtils.compareEnvelopes(envelope1, envelope2);
+
+		// Scan the envelopes without reading the geometries
+		WKBTestUtils.compareEnvelopes(envelope,
+				GeometryReader.readEnvelope(bytes1));
+		WKBTestUtils.compareEnvelopes(envelope,
+				GeometryReader.readEnvelope(bytes2));
+
+		// Measure the lengths without reading the geometries
+		TestCase.assertEquals(bytes1.length,
+				GeometryReader.measureLength(bytes1));
+		TestCase.assertEquals(bytes2.length,
+				GeometryReader.measureLength(bytes2));
+	}
+
+	/**
+	 * Create a closed rectangular ring
+	 * 
+	 * @param minX
+	 *            min x
+	 * @param minY
+	 *            min y
+	 * @param maxX
+	 *            max x
+	 * @param maxY
+	 *            max y
+	 * @return ring
+	 */
+	private static LineString createRing(double minX, double minY,
+			double maxX, double maxY) {
+		LineString ring = new LineString(false, false);
+		ring.addPoint(new Point(minX, minY));
+		ring.addPoint(new Point(maxX, minY));
+		ring.addPoint(new Point(maxX, maxY));
+		ring.addPoint(new Point(minX, maxY));
+		ring.addPoint(new Point(minX, minY));
+		return ring;
 	}
 
 	/**
@@ -795,4 +1969,59 @@ public class WKBTest {
 
 	}
 
+	/**
+	 * Test the shared geometry type info lookup of geometry codes
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometryTypeInfo() throws IOException {
+
+		for (int mode = 0; mode < 4; mode++) {
+			for (int type = 0; type <= 17; type++) {
+				int code = mode * 1000 + type;
+
+				GeometryTypeInfo info = GeometryCodes.getGeometryTypeInfo(code);
+				TestCase.assertSame(info,
+						GeometryCodes.getGeometryTypeInfo(code));
+				TestCase.assertEquals(code, info.getGeometryTypeCode());
+				TestCase.assertEquals(GeometryCodes.getGeometryType(code),
+						info.getGeometryType());
+				TestCase.assertEquals(GeometryCodes.hasZ(code), info.hasZ());
+				TestCase.assertEquals(GeometryCodes.hasM(code), info.hasM());
+
+				GeometryTypeInfo info25D = GeometryCodes
+						.getGeometryTypeInfo(0x80000000L + code);
+				TestCase.assertSame(info25D,
+						GeometryCodes.getGeometryTypeInfo(0x80000000L + code));
+				TestCase.assertEquals(code, info25D.getGeometryTypeCode());
+				TestCase.assertEquals(info.getGeometryType(),
+						info25D.getGeometryType());
+				TestCase.assertTrue(info25D.hasZ());
+				TestCase.assertEquals(info.hasM(), info25D.hasM());
+			}
+		}
+
+		long[] invalidCodes = new long[] { 18, 999, 1018, 3999, 4000, 4001,
+				0x80000000L + 18, 0xffffffffL };
+		for (long invalidCode : invalidCodes) {
+			try {
+				GeometryCodes.getGeometryTypeInfo(invalidCode);
+				TestCase.fail("Invalid code did not fail: " + invalidCode);
+			} catch (SFException e) {
+				// Expected
+			}
+		}
+
+		Point point = new Point(true, false, 1.0, 2.0);
+		point.setZ(3.0);
+		byte[] bytes = GeometryWriter.writeGeometry(point);
+		GeometryReader reader = new GeometryReader(bytes);
+		TestCase.assertSame(GeometryCodes.getGeometryTypeInfo(1001),
+				reader.readGeometryType());
+		reader.close();
+
+	}
+
 }
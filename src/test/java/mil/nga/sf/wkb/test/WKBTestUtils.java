@@ -1,7 +1,10 @@
 package mil.nga.sf.wkb.test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.Channels;
 
 import junit.framework.TestCase;
 import mil.nga.sf.CircularString;
@@ -27,6 +30,7 @@ import mil.nga.sf.wkb.GeometryCodes;
 import mil.nga.sf.wkb.GeometryReader;
 import mil.nga.sf.wkb.GeometryTypeInfo;
 import mil.nga.sf.wkb.GeometryWriter;
+import mil.nga.sf.wkb.StreamByteReader;
 
 /**
  * WKB test utils
@@ -569,6 +573,74 @@ public class WKBTestUtils {
 		return geometry;
 	}
 
+	/**
+	 * Read a geometry from bytes placed between padding in a heap or direct
+	 * byte buffer, verifying the buffer state is unchanged
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param direct
+	 *            true to read from a direct byte buffer
+	 * @return geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	public static Geometry readGeometry(byte[] bytes, boolean direct)
+			throws IOException {
+
+		int padding = 7;
+		int capacity = bytes.length + 2 * padding;
+		ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity)
+				: ByteBuffer.allocate(capacity);
+		buffer.position(padding);
+		buffer.put(bytes);
+		buffer.position(padding);
+		buffer.limit(padding + bytes.length);
+		ByteOrder byteOrder = buffer.order();
+
+		Geometry geometry = GeometryReader.readGeometry(buffer);
+
+		TestCase.assertEquals(padding, buffer.position());
+		TestCase.assertEquals(padding + bytes.length, buffer.limit());
+		TestCase.assertEquals(byteOrder, buffer.order());
+
+		return geometry;
+	}
+
+	/**
+	 * Read a geometry incrementally from a stream of the bytes
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param bufferSize
+	 *            refill buffer size
+	 * @param channel
+	 *            true to read from a readable byte channel, false for an
+	 *            input stream
+	 * @return geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	public static Geometry readGeometry(byte[] bytes, int bufferSize,
+			boolean channel) throws IOException {
+
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
+		StreamByteReader reader = channel
+				? new StreamByteReader(Channels.newChannel(inputStream),
+						bufferSize)
+				: new StreamByteReader(inputStream, bufferSize);
+
+		Geometry geometry = null;
+		try {
+			geometry = GeometryReader.readGeometry(reader);
+			TestCase.assertEquals(bytes.length, reader.getBytesRead());
+		} finally {
+			reader.close();
+		}
+
+		return geometry;
+	}
+
 	/**
 	 * Compare two byte arrays and verify they are equal
 	 * 
@@ -700,6 +772,29 @@ public class WKBTestUtils {
 		return polygon;
 	}
 
+	/**
+	 * Create a random triangle
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @return triangle
+	 */
+	public static Triangle createTriangle(boolean hasZ, boolean hasM) {
+
+		Triangle triangle = new Triangle(hasZ, hasM);
+
+		LineString ring = new LineString(hasZ, hasM);
+		for (int i = 0; i < 3; i++) {
+			ring.addPoint(createPoint(hasZ, hasM));
+		}
+		ring.addPoint(ring.getPoints().get(0));
+		triangle.addRing(ring);
+
+		return triangle;
+	}
+
 	/**
 	 * Create a random multi point
 	 * 